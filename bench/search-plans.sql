@@ -0,0 +1,55 @@
+-- Сравнение планов поиска документов: прежний запрос с (:x is null or ...) против запроса из Specification.
+-- Запуск: psql -d document-service -f bench/search-plans.sql
+-- Прежний запрос подготавливается как серверный prepared statement (JDBC-драйвер переходит на него
+-- после prepareThreshold=5 выполнений) и выполняется по generic-плану, как это происходит в приложении.
+
+set plan_cache_mode = force_generic_plan;
+
+prepare legacy_search(varchar, varchar, timestamp, timestamp) as
+select d.*
+from document d
+where ($1 is null or d.status = $1)
+  and ($2 is null or d.author = $2)
+  and ($3 is null or d.created_at >= $3)
+  and ($4 is null or d.created_at <= $4)
+order by d.created_at desc
+offset 0 rows fetch first 20 rows only;
+
+prepare legacy_count(varchar, varchar, timestamp, timestamp) as
+select count(d.id)
+from document d
+where ($1 is null or d.status = $1)
+  and ($2 is null or d.author = $2)
+  and ($3 is null or d.created_at >= $3)
+  and ($4 is null or d.created_at <= $4);
+
+-- 1. Автор + период
+explain (analyze, buffers) execute legacy_search(null, 'author-7', '2025-03-01', '2025-06-01');
+explain (analyze, buffers) execute legacy_count(null, 'author-7', '2025-03-01', '2025-06-01');
+
+explain (analyze, buffers)
+select d.* from document d
+where d.author = 'author-7' and d.created_at >= '2025-03-01' and d.created_at <= '2025-06-01'
+order by d.created_at desc, d.id desc
+offset 0 rows fetch first 20 rows only;
+
+explain (analyze, buffers)
+select count(d.id) from document d
+where d.author = 'author-7' and d.created_at >= '2025-03-01' and d.created_at <= '2025-06-01';
+
+-- 2. Только статус
+explain (analyze, buffers) execute legacy_search('SUBMITTED', null, null, null);
+explain (analyze, buffers) execute legacy_count('SUBMITTED', null, null, null);
+
+explain (analyze, buffers)
+select d.* from document d
+where d.status = 'SUBMITTED'
+order by d.created_at desc, d.id desc
+offset 0 rows fetch first 20 rows only;
+
+explain (analyze, buffers)
+select count(d.id) from document d where d.status = 'SUBMITTED';
+
+deallocate legacy_search;
+deallocate legacy_count;
+reset plan_cache_mode;
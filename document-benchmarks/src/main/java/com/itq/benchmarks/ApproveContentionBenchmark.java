@@ -0,0 +1,93 @@
+package com.itq.benchmarks;
+
+import com.itq.dto.BatchOpRequest;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.exception.ValidationException;
+import com.itq.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link DocumentService#approveOne} под конкуренцией в режимах {@code document.approve.lock-mode}:
+ * {@value #THREADS} потоков, каждые {@value #THREADS} подряд идущих вызова утверждают один и тот же документ
+ * (один успех, остальные — CONFLICT), как {@code /concurrent-approve-test}. Пропускная способность — Throughput,
+ * p99 — SampleTime. Потоков больше, чем соединений в пуле Hikari (10 по умолчанию).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(ApproveContentionBenchmark.THREADS)
+@Fork(1)
+public class ApproveContentionBenchmark {
+
+    static final int THREADS = 16;
+    /** Документов на итерацию: с запасом на 2 с вызовов, чтобы не начать утверждать уже утверждённые. */
+    private static final int DOCUMENTS = 10_000;
+    private static final int SUBMIT_CHUNK = 1000;
+
+    @Param({"PESSIMISTIC", "OPTIMISTIC"})
+    String lockMode;
+
+    ConfigurableApplicationContext context;
+    DocumentService documentService;
+    List<Long> ids;
+    final AtomicLong attempts = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("document.approve.lock-mode=" + lockMode, "document.cache.enabled=false");
+        documentService = context.getBean(DocumentService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void submitted() {
+        ids = BenchmarkContext.createDrafts(documentService, DOCUMENTS, i -> "bench-contention");
+        for (int from = 0; from < ids.size(); from += SUBMIT_CHUNK) {
+            documentService.submit(new BatchOpRequest(BenchmarkContext.INITIATOR,
+                ids.subList(from, Math.min(from + SUBMIT_CHUNK, ids.size())), null));
+        }
+        attempts.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkCapacity() {
+        if (attempts.get() / THREADS >= ids.size()) {
+            throw new IllegalStateException("Iteration ran out of SUBMITTED documents; raise DOCUMENTS");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public StatusChangeResultType approveSameDocument() {
+        Long id = ids.get((int) (attempts.getAndIncrement() / THREADS % ids.size()));
+        try {
+            documentService.approveOne(id, BenchmarkContext.INITIATOR, "contention");
+            return StatusChangeResultType.SUCCESS;
+        } catch (ValidationException e) {
+            return StatusChangeResultType.CONFLICT;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.itq.benchmarks;
+
+import com.itq.dto.BatchOpRequest;
+import com.itq.dto.BatchResultDto;
+import com.itq.service.DocumentService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link DocumentService#approve} пачками по {@value #BATCH} id из {@value #THREADS} потоков при пуле Hikari
+ * на {@value #POOL_SIZE} соединений, в режимах {@code document.approve.transaction-mode}. Кроме пропускной
+ * способности после каждой итерации печатает использование пула: пик занятых соединений и ждущих потоков
+ * (опрос {@link HikariPoolMXBean} каждую миллисекунду) и число вызовов, не дождавшихся соединения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(ApprovePoolBenchmark.THREADS)
+@Fork(1)
+public class ApprovePoolBenchmark {
+
+    static final int THREADS = 16;
+    static final int POOL_SIZE = 10;
+    static final int BATCH = 20;
+    /** Документов на итерацию: с запасом на 2 с вызовов. */
+    private static final int DOCUMENTS = 200_000;
+    private static final int SUBMIT_CHUNK = 1000;
+
+    @Param({"PER_CALL", "PER_CHUNK"})
+    String transactionMode;
+
+    ConfigurableApplicationContext context;
+    DocumentService documentService;
+    HikariPoolMXBean pool;
+    List<Long> ids;
+    final AtomicLong calls = new AtomicLong();
+    final AtomicLong connectionTimeouts = new AtomicLong();
+    final AtomicInteger peakActive = new AtomicInteger();
+    final AtomicInteger peakWaiting = new AtomicInteger();
+    Thread sampler;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // при PER_CALL все соединения могут оказаться у внешних транзакций, ждущих второе: не ждать 30 с по умолчанию
+        context = BenchmarkContext.start("document.approve.transaction-mode=" + transactionMode,
+            "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+            "spring.datasource.hikari.connection-timeout=1000",
+            "document.cache.enabled=false");
+        documentService = context.getBean(DocumentService.class);
+        pool = context.getBean("primaryDataSource", HikariDataSource.class).getHikariPoolMXBean();
+    }
+
+    @Setup(Level.Iteration)
+    public void submitted() {
+        ids = BenchmarkContext.createDrafts(documentService, DOCUMENTS, i -> "bench-pool");
+        for (int from = 0; from < ids.size(); from += SUBMIT_CHUNK) {
+            documentService.submit(new BatchOpRequest(BenchmarkContext.INITIATOR,
+                ids.subList(from, Math.min(from + SUBMIT_CHUNK, ids.size())), null));
+        }
+        calls.set(0);
+        connectionTimeouts.set(0);
+        peakActive.set(0);
+        peakWaiting.set(0);
+        sampler = Thread.ofPlatform().daemon(true).name("pool-sampler").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                peakWaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() throws InterruptedException {
+        sampler.interrupt();
+        sampler.join();
+        System.out.printf("%n[pool %s] calls=%d, peak active=%d/%d, peak waiting=%d, connection timeouts=%d%n",
+            transactionMode, calls.get(), peakActive.get(), POOL_SIZE, peakWaiting.get(), connectionTimeouts.get());
+        if (calls.get() * BATCH >= ids.size()) {
+            throw new IllegalStateException("Iteration ran out of SUBMITTED documents; raise DOCUMENTS");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public BatchResultDto approveBatch() {
+        int from = (int) (calls.getAndIncrement() * BATCH % ids.size());
+        try {
+            return documentService.approve(new BatchOpRequest(BenchmarkContext.INITIATOR,
+                ids.subList(from, from + BATCH), null));
+        } catch (CannotCreateTransactionException e) {
+            // транзакции пачки или внешней транзакции не досталось соединение за connection-timeout
+            connectionTimeouts.incrementAndGet();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.itq.benchmarks;
+
+import com.itq.dto.BatchOpRequest;
+import com.itq.dto.BatchResultDto;
+import com.itq.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DocumentService#submit} и {@link DocumentService#approve} на пачках 1 / 50 / 1000 id.
+ * Перед каждым вызовом создаются свежие документы в нужном статусе; подготовка в замер не входит.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchStatusChangeBenchmark {
+
+    @Param({"1", "50", "1000"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    DocumentService documentService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        documentService = context.getBean(DocumentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Drafts {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void prepare(BatchStatusChangeBenchmark bench) {
+            ids = BenchmarkContext.createDrafts(bench.documentService, bench.batchSize, i -> "bench-batch");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Submitted {
+        List<Long> ids;
+
+        @Setup(Level.Invocation)
+        public void prepare(BatchStatusChangeBenchmark bench) {
+            ids = BenchmarkContext.createDrafts(bench.documentService, bench.batchSize, i -> "bench-batch");
+            bench.documentService.submit(new BatchOpRequest(BenchmarkContext.INITIATOR, ids, null));
+        }
+    }
+
+    @Benchmark
+    public BatchResultDto submit(Drafts drafts) {
+        return documentService.submit(new BatchOpRequest(BenchmarkContext.INITIATOR, drafts.ids, null));
+    }
+
+    @Benchmark
+    public BatchResultDto approve(Submitted submitted) {
+        return documentService.approve(new BatchOpRequest(BenchmarkContext.INITIATOR, submitted.ids, null));
+    }
+}
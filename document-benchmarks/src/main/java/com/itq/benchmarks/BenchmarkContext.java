@@ -0,0 +1,49 @@
+package com.itq.benchmarks;
+
+import com.itq.DocumentServiceApplication;
+import com.itq.dto.DocumentBatchCreateRequest;
+import com.itq.dto.DocumentCreateRequest;
+import com.itq.service.DocumentService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Поднимает контекст сервиса для бенчмарков: по умолчанию на встроенной H2 (профиль bench),
+ * с {@code -Dbench.db=postgres} — на локальном PostgreSQL (профиль bench-postgres).
+ * JMH передаёт системные свойства хост-JVM в форки, поэтому флаг достаточно указать при запуске.
+ */
+final class BenchmarkContext {
+
+    static final String INITIATOR = "bench";
+
+    private static final int CREATE_CHUNK = 5000;
+
+    private BenchmarkContext() {
+    }
+
+    /** @param properties свойства вида {@code key=value} с приоритетом над application.yaml, например отключение кэша */
+    static ConfigurableApplicationContext start(String... properties) {
+        boolean postgres = "postgres".equalsIgnoreCase(System.getProperty("bench.db", "h2"));
+        return new SpringApplicationBuilder(DocumentServiceApplication.class)
+            .profiles(postgres ? new String[]{"bench", "bench-postgres"} : new String[]{"bench"})
+            .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /** Создаёт черновики пачками через {@link DocumentService#createDocuments}. */
+    static List<Long> createDrafts(DocumentService service, int count, IntFunction<String> author) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += CREATE_CHUNK) {
+            List<DocumentCreateRequest> items = IntStream.range(from, Math.min(from + CREATE_CHUNK, count))
+                .mapToObj(i -> new DocumentCreateRequest(INITIATOR, author.apply(i), "Bench document " + i))
+                .toList();
+            ids.addAll(service.createDocuments(new DocumentBatchCreateRequest(items)));
+        }
+        return ids;
+    }
+}
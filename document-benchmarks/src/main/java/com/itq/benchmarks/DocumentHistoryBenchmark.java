@@ -0,0 +1,83 @@
+package com.itq.benchmarks;
+
+import com.itq.dto.DocumentWithHistoryResponse;
+import com.itq.entity.Document;
+import com.itq.entity.History;
+import com.itq.entity.enums.DocumentAction;
+import com.itq.repository.DocumentRepository;
+import com.itq.repository.HistoryRepository;
+import com.itq.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DocumentService#getDocumentWithHistory} для документов с короткой и длинной историей.
+ * Запросы идут по кругу по {@value #DOCUMENTS} документам, чтобы не читать всё время одни и те же страницы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentHistoryBenchmark {
+
+    private static final int DOCUMENTS = 100;
+
+    @Param({"2", "200"})
+    int historyLength;
+
+    ConfigurableApplicationContext context;
+    DocumentService documentService;
+    List<Long> ids;
+    int next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        documentService = context.getBean(DocumentService.class);
+        ids = BenchmarkContext.createDrafts(documentService, DOCUMENTS, i -> "bench-history");
+
+        DocumentRepository documentRepository = context.getBean(DocumentRepository.class);
+        HistoryRepository historyRepository = context.getBean(HistoryRepository.class);
+        for (Long id : ids) {
+            Document document = documentRepository.getReferenceById(id);
+            List<History> history = new ArrayList<>(historyLength);
+            for (int i = 0; i < historyLength; i++) {
+                History entry = new History();
+                entry.setDocument(document);
+                entry.setAction(i % 2 == 0 ? DocumentAction.SUBMIT : DocumentAction.APPROVE);
+                entry.setInitiator(BenchmarkContext.INITIATOR);
+                entry.setComment("entry " + i);
+                history.add(entry);
+            }
+            historyRepository.saveAll(history);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public DocumentWithHistoryResponse getWithHistory() {
+        return documentService.getDocumentWithHistory(ids.get(next++ % DOCUMENTS));
+    }
+}
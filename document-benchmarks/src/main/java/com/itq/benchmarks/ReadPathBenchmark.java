@@ -0,0 +1,85 @@
+package com.itq.benchmarks;
+
+import com.itq.dto.DocumentResponse;
+import com.itq.dto.SearchCriteria;
+import com.itq.entity.Document;
+import com.itq.repository.DocumentRepository;
+import com.itq.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Списочные чтения: страница {@code getDocuments}, поиск по статусу и получение по списку id — страницами
+ * по 20 и 1000 документов. Кэш документов выключен, чтобы каждый вызов читал базу. Память на вызов — с {@code -prof gc}
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    @Param({"20", "1000"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    DocumentService documentService;
+    Pageable page;
+    SearchCriteria criteria;
+    List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start("document.cache.enabled=false");
+        documentService = context.getBean(DocumentService.class);
+        DocumentRepository documentRepository = context.getBean(DocumentRepository.class);
+        if (documentRepository.count() < pageSize) {
+            BenchmarkContext.createDrafts(documentService, pageSize, i -> "bench-read");
+        }
+        page = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+        criteria = new SearchCriteria("DRAFT", null, null, null);
+        ids = documentRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id")))
+            .map(Document::getId).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DocumentResponse> getDocuments() {
+        return documentService.getDocuments(page);
+    }
+
+    @Benchmark
+    public Page<DocumentResponse> search() {
+        return documentService.search(criteria, page);
+    }
+
+    @Benchmark
+    public List<DocumentResponse> getDocumentsByIds() {
+        return documentService.getDocumentsByIds(ids);
+    }
+}
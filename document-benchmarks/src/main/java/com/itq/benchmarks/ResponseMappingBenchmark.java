@@ -0,0 +1,80 @@
+package com.itq.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.dto.BatchResultDto;
+import com.itq.dto.DocumentResponse;
+import com.itq.dto.ItemResult;
+import com.itq.entity.Document;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.entity.enums.StatusChangeResultType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Преобразование сущностей в {@link DocumentResponse} и JSON-сериализация {@link BatchResultDto} —
+ * CPU-часть ответов без базы данных. ObjectMapper собирается тем же {@link Jackson2ObjectMapperBuilder},
+ * что и в Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"1", "50", "1000"})
+    int size;
+
+    List<Document> documents;
+    BatchResultDto batchResult;
+    ObjectMapper objectMapper;
+
+    @Setup
+    public void prepare() {
+        LocalDateTime now = LocalDateTime.now();
+        StatusChangeResultType[] results = StatusChangeResultType.values();
+        documents = IntStream.range(0, size).mapToObj(i -> {
+            Document doc = new Document();
+            doc.setId((long) i);
+            doc.setUniqueNumber(UUID.randomUUID());
+            doc.setAuthor("author-" + i % 200);
+            doc.setTitle("Document #" + i);
+            doc.setStatus(DocumentStatus.APPROVED);
+            doc.setCreatedAt(now.minusDays(i));
+            doc.setUpdatedAt(now);
+            return doc;
+        }).toList();
+        batchResult = new BatchResultDto(IntStream.range(0, size)
+            .mapToObj(i -> new ItemResult((long) i, results[i % results.length], i % 4 == 0 ? null : "Status conflict"))
+            .toList());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<DocumentResponse> toResponse() {
+        return documents.stream().map(DocumentResponse::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeBatchResult() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(batchResult);
+    }
+}
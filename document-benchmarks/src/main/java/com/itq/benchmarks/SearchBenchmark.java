@@ -0,0 +1,114 @@
+package com.itq.benchmarks;
+
+import com.itq.dto.BatchOpRequest;
+import com.itq.dto.DocumentResponse;
+import com.itq.dto.SearchCriteria;
+import com.itq.repository.DocumentRepository;
+import com.itq.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * {@link DocumentService#search} для каждого сочетания фильтров: страница 20 документов по убыванию даты создания.
+ * Если в базе меньше {@code documents} документов, недостающие создаются: 200 авторов, ~92% APPROVED,
+ * ~4% DRAFT, ~4% SUBMITTED, даты создания равномерно за два года.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int AUTHORS = 200;
+    private static final int STATUS_BATCH = 1000;
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    /** Фильтры через запятую: status, author, period; none — без фильтров. */
+    @Param({"none", "status", "author", "period", "status,author", "status,period", "author,period", "status,author,period"})
+    String filters;
+
+    @Param({"20000"})
+    int documents;
+
+    ConfigurableApplicationContext context;
+    DocumentService documentService;
+    SearchCriteria criteria;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        documentService = context.getBean(DocumentService.class);
+        long existing = context.getBean(DocumentRepository.class).count();
+        if (existing < documents) {
+            seed(documents - (int) existing);
+        }
+        Set<String> enabled = Set.copyOf(Arrays.asList(filters.split(",")));
+        LocalDateTime now = LocalDateTime.now();
+        criteria = new SearchCriteria(
+            enabled.contains("status") ? "SUBMITTED" : null,
+            enabled.contains("author") ? "author-7" : null,
+            enabled.contains("period") ? now.minusMonths(6) : null,
+            enabled.contains("period") ? now.minusMonths(3) : null
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DocumentResponse> search() {
+        return documentService.search(criteria, PAGE);
+    }
+
+    /** Статусы меняются через сервис, чтобы счётчики статусов остались согласованными; даты — прямым UPDATE. */
+    private void seed(int count) {
+        List<Long> ids = BenchmarkContext.createDrafts(documentService, count, i -> "author-" + (i % AUTHORS));
+        List<Long> toSubmit = IntStream.range(0, ids.size()).filter(i -> i % 25 != 0).mapToObj(ids::get).toList();
+        List<Long> toApprove = IntStream.range(0, ids.size()).filter(i -> i % 25 > 1).mapToObj(ids::get).toList();
+        inBatches(toSubmit, batch -> documentService.submit(new BatchOpRequest(BenchmarkContext.INITIATOR, batch, null)));
+        inBatches(toApprove, batch -> documentService.approve(new BatchOpRequest(BenchmarkContext.INITIATOR, batch, null)));
+
+        LocalDateTime now = LocalDateTime.now();
+        context.getBean(JdbcTemplate.class).batchUpdate("update document set created_at = ? where id = ?",
+            ids, STATUS_BATCH, (ps, id) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(now.minusMinutes(id * 37 % (730 * 24 * 60))));
+                ps.setLong(2, id);
+            });
+    }
+
+    private static void inBatches(List<Long> ids, Consumer<List<Long>> action) {
+        for (int from = 0; from < ids.size(); from += STATUS_BATCH) {
+            action.accept(ids.subList(from, Math.min(from + STATUS_BATCH, ids.size())));
+        }
+    }
+}
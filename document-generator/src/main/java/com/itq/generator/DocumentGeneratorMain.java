@@ -1,69 +1,67 @@
 package com.itq.generator;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.Duration;
+import java.util.List;
 import java.util.Properties;
 
 /**
- * Утилита генерации документов.
- * Читает из generator.properties параметр count=N и создаёт N документов через API сервиса.
+ * Утилита генерации документов и нагрузочный генератор.
+ * Читает из generator.properties число запросов, параллельность и целевую частоту. В режиме create только
+ * создаёт документы, в режиме scenario — выполняет смесь операций жизненного цикла ({@link ScenarioWorkload}).
+ * Печатает пропускную способность и перцентили латентности по операциям (см. {@link LoadRunner}, {@link LoadReport}).
  */
 public class DocumentGeneratorMain {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
     private static final String DEFAULT_CONFIG = "generator.properties";
-    private static final String BASE_URL_KEY = "api.baseUrl";
-    private static final String DEFAULT_BASE_URL = "http://localhost:8080/api";
-    private static final String COUNT_KEY = "count";
 
     public static void main(String[] args) throws Exception {
-        Properties props = loadProperties(args);
-        String baseUrl = props.getProperty(BASE_URL_KEY, DEFAULT_BASE_URL).replaceAll("/$", "");
-        int count = Integer.parseInt(props.getProperty(COUNT_KEY, "0"));
-
-        if (count <= 0) {
-            System.err.println("Parameter 'count' must be positive. Set in generator.properties or -Dcount=N");
+        GeneratorConfig config;
+        ScenarioConfig scenario;
+        try {
+            Properties props = loadProperties(args);
+            config = GeneratorConfig.from(props);
+            scenario = config.mode() == GeneratorConfig.Mode.SCENARIO ? ScenarioConfig.from(props) : null;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
             System.exit(1);
+            return;
         }
 
-        System.out.println("Document Generator: creating " + count + " documents via " + baseUrl);
-        long totalStart = System.currentTimeMillis();
-
-        HttpClient client = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
-
-        int success = 0;
-        int failed = 0;
-
-        for (int i = 0; i < count; i++) {
-            long start = System.currentTimeMillis();
-            boolean ok = createDocument(client, baseUrl, "Generator", "Generator", "Document #" + (i + 1));
-            long elapsed = System.currentTimeMillis() - start;
-
-            if (ok) {
-                success++;
-                if ((i + 1) % 100 == 0 || i == count - 1) {
-                    System.out.println("Progress: " + (i + 1) + "/" + count + " created");
-                }
-            } else {
-                failed++;
-                System.err.println("Failed to create document " + (i + 1));
+        ServiceApi api = new ServiceApi(config.baseUrl());
+        String model = config.openModel() ? ", rate=" + config.rate() + " req/s" : ", closed model";
+        LoadRunner.Workload workload;
+        List<OperationStats> stats;
+        if (scenario == null) {
+            System.out.println("Document Generator: creating " + config.count() + " documents via " + config.baseUrl()
+                + ", concurrency=" + config.concurrency() + model);
+            OperationStats create = new OperationStats("create");
+            workload = seq -> new LoadRunner.Request(create,
+                () -> api.create("Generator", "Generator", "Document #" + (seq + 1)).errorType());
+            stats = List.of(create);
+        } else {
+            System.out.println("Document Generator: scenario " + scenario.mix() + ", " + config.count()
+                + " requests via " + config.baseUrl() + ", concurrency=" + config.concurrency() + model
+                + ", ids=" + scenario.idPattern().name().toLowerCase());
+            ScenarioWorkload scenarioWorkload = new ScenarioWorkload(scenario, api);
+            if (scenario.seed() > 0) {
+                System.out.println("Seeding " + scenario.seed() + " drafts (not measured)...");
+                scenarioWorkload.seed();
             }
+            workload = scenarioWorkload;
+            stats = scenarioWorkload.stats();
+        }
+
+        long totalStart = System.currentTimeMillis();
+        try (LoadReport report = new LoadReport(config, stats, System.out)) {
+            new LoadRunner(config).run(workload);
         }
 
         long totalElapsed = System.currentTimeMillis() - totalStart;
-        System.out.println("Done. Total: " + count + ", success=" + success + ", failed=" + failed);
+        long failed = stats.stream().mapToLong(OperationStats::totalErrors).sum();
+        System.out.println("Done. Total: " + config.count() + ", success=" + (config.count() - failed) + ", failed=" + failed);
         System.out.println("Total time: " + totalElapsed + " ms");
     }
 
@@ -81,37 +79,14 @@ public class DocumentGeneratorMain {
             }
         }
 
-        String countOverride = System.getProperty(COUNT_KEY);
-        if (countOverride != null) {
-            props.setProperty(COUNT_KEY, countOverride);
+        for (String[] keys : List.of(GeneratorConfig.KEYS, ScenarioConfig.KEYS)) {
+            for (String key : keys) {
+                String override = System.getProperty(key);
+                if (override != null) {
+                    props.setProperty(key, override);
+                }
+            }
         }
         return props;
     }
-
-    private static boolean createDocument(HttpClient client, String baseUrl, String initiator, String author, String title) {
-        ObjectNode body = MAPPER.createObjectNode()
-            .put("initiator", initiator)
-            .put("author", author)
-            .put("title", title);
-        String json;
-        try {
-            json = MAPPER.writeValueAsString(body);
-        } catch (Exception e) {
-            return false;
-        }
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/documents"))
-            .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(json))
-            .timeout(Duration.ofSeconds(30))
-            .build();
-
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode() >= 200 && response.statusCode() < 300;
-        } catch (Exception e) {
-            System.err.println("Request failed: " + e.getMessage());
-            return false;
-        }
-    }
 }
@@ -0,0 +1,70 @@
+package com.itq.generator;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Параметры генератора из generator.properties (любой ключ можно переопределить через -Dключ=значение).
+ *
+ * @param mode               create — только POST /documents; scenario — смесь операций жизненного цикла ({@link ScenarioConfig})
+ * @param count              сколько запросов отправить
+ * @param concurrency        максимум одновременных запросов
+ * @param rate               целевая частота, запросов/с; 0 — закрытая модель (concurrency потоков шлют подряд)
+ * @param reportIntervalSec  период промежуточной статистики, с
+ * @param reportFile         файл итогового отчёта (.csv или .json); null — не писать
+ */
+record GeneratorConfig(String baseUrl, Mode mode, int count, int concurrency, double rate, int reportIntervalSec, Path reportFile) {
+
+    enum Mode { CREATE, SCENARIO }
+
+    static final String BASE_URL_KEY = "api.baseUrl";
+    static final String MODE_KEY = "mode";
+    static final String COUNT_KEY = "count";
+    static final String CONCURRENCY_KEY = "concurrency";
+    static final String RATE_KEY = "rate";
+    static final String REPORT_INTERVAL_KEY = "report.intervalSec";
+    static final String REPORT_FILE_KEY = "report.file";
+
+    static final String[] KEYS = {BASE_URL_KEY, MODE_KEY, COUNT_KEY, CONCURRENCY_KEY, RATE_KEY, REPORT_INTERVAL_KEY, REPORT_FILE_KEY};
+
+    private static final String DEFAULT_BASE_URL = "http://localhost:8080/api";
+
+    static GeneratorConfig from(Properties props) {
+        String reportFile = props.getProperty(REPORT_FILE_KEY, "").trim();
+        GeneratorConfig config = new GeneratorConfig(
+            props.getProperty(BASE_URL_KEY, DEFAULT_BASE_URL).trim().replaceAll("/$", ""),
+            parseMode(props.getProperty(MODE_KEY, "create")),
+            Integer.parseInt(props.getProperty(COUNT_KEY, "0").trim()),
+            Integer.parseInt(props.getProperty(CONCURRENCY_KEY, "1").trim()),
+            Double.parseDouble(props.getProperty(RATE_KEY, "0").trim()),
+            Integer.parseInt(props.getProperty(REPORT_INTERVAL_KEY, "5").trim()),
+            reportFile.isEmpty() ? null : Path.of(reportFile)
+        );
+        if (config.count <= 0) {
+            throw new IllegalArgumentException("Parameter 'count' must be positive. Set in generator.properties or -Dcount=N");
+        }
+        if (config.concurrency <= 0) {
+            throw new IllegalArgumentException("Parameter 'concurrency' must be positive");
+        }
+        if (config.rate < 0) {
+            throw new IllegalArgumentException("Parameter 'rate' must be >= 0");
+        }
+        if (config.reportIntervalSec <= 0) {
+            throw new IllegalArgumentException("Parameter 'report.intervalSec' must be positive");
+        }
+        return config;
+    }
+
+    private static Mode parseMode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Parameter 'mode' must be create or scenario");
+        }
+    }
+
+    boolean openModel() {
+        return rate > 0;
+    }
+}
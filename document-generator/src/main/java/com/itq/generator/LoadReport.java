@@ -0,0 +1,148 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Печатает пропускную способность и перцентили латентности каждые {@code report.intervalSec} секунд и в конце,
+ * при заданном {@code report.file} сохраняет те же строки в CSV или JSON.
+ */
+final class LoadReport implements AutoCloseable {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final GeneratorConfig config;
+    private final List<OperationStats> operations;
+    private final PrintStream out;
+    private final ScheduledExecutorService ticker;
+    private final List<Row> rows = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private long lastTickNanos = startNanos;
+
+    LoadReport(GeneratorConfig config, List<OperationStats> operations, PrintStream out) {
+        this.config = config;
+        this.operations = operations;
+        this.out = out;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, config.reportIntervalSec(), config.reportIntervalSec(), TimeUnit.SECONDS);
+    }
+
+    private synchronized void tick() {
+        long now = System.nanoTime();
+        double intervalSec = (now - lastTickNanos) / 1e9;
+        lastTickNanos = now;
+        double elapsedSec = (now - startNanos) / 1e9;
+        for (OperationStats op : operations) {
+            OperationStats.Interval interval = op.closeInterval();
+            if (interval.histogram().getTotalCount() == 0 && interval.errors() == 0) {
+                continue;
+            }
+            Row row = Row.of("interval", elapsedSec, op.name(), interval.histogram(), interval.errors(),
+                interval.outcomes(), intervalSec);
+            rows.add(row);
+            out.println(row.format());
+        }
+    }
+
+    /** Закрывает последний интервал, печатает итог и пишет файл отчёта. */
+    @Override
+    public synchronized void close() throws IOException {
+        ticker.shutdownNow();
+        tick();
+        double elapsedSec = (System.nanoTime() - startNanos) / 1e9;
+        out.println("---- Summary (" + (config.openModel()
+            ? "open model, " + config.rate() + " req/s target, latency from intended start"
+            : "closed model, " + config.concurrency() + " in flight, service time only") + ")");
+        for (OperationStats op : operations) {
+            Histogram total = op.total();
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            Row row = Row.of("total", elapsedSec, op.name(), total, op.totalErrors(), op.totalOutcomes(), elapsedSec);
+            rows.add(row);
+            out.println(row.format());
+            out.println(String.format(Locale.ROOT, "  %-8s %10s", "pct", "ms"));
+            for (double p : new double[] {50, 75, 90, 95, 99, 99.9, 99.99, 100}) {
+                out.println(String.format(Locale.ROOT, "  %-8s %10.2f", p + "%", total.getValueAtPercentile(p) / 1000d));
+            }
+            if (!op.errorsByType().isEmpty()) {
+                out.println("  failed requests: " + op.errorsByType());
+            }
+            if (!op.resultsByType().isEmpty()) {
+                out.println("  item results: " + op.resultsByType());
+            }
+        }
+        if (config.reportFile() != null) {
+            write(config.reportFile());
+            out.println("Report written to " + config.reportFile().toAbsolutePath());
+        }
+    }
+
+    private void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("config", config);
+            json.put("rows", rows);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("phase,elapsedSec,operation,count,errors,notFound,conflict,registryError,rps,p50Ms,p90Ms,p99Ms,p999Ms,maxMs");
+        for (Row r : rows) {
+            lines.add(String.format(Locale.ROOT, "%s,%.1f,%s,%d,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                r.phase, r.elapsedSec, r.operation, r.count, r.errors, r.notFound, r.conflict, r.registryError,
+                r.rps, r.p50Ms, r.p90Ms, r.p99Ms, r.p999Ms, r.maxMs));
+        }
+        Files.write(file, lines);
+    }
+
+    record Row(String phase, double elapsedSec, String operation, long count, long errors,
+               long notFound, long conflict, long registryError, double rps,
+               double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static Row of(String phase, double elapsedSec, String operation, Histogram h, long errors,
+                      Map<String, Long> outcomes, double periodSec) {
+            double[] p = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                p[i] = h.getValueAtPercentile(PERCENTILES[i]) / 1000d;
+            }
+            return new Row(phase, elapsedSec, operation, h.getTotalCount(), errors,
+                outcomes.getOrDefault(OperationStats.NOT_FOUND, 0L),
+                outcomes.getOrDefault(OperationStats.CONFLICT, 0L),
+                outcomes.getOrDefault(OperationStats.REGISTRY_ERROR, 0L),
+                periodSec > 0 ? h.getTotalCount() / periodSec : 0, p[0], p[1], p[2], p[3], h.getMaxValue() / 1000d);
+        }
+
+        String format() {
+            String line = String.format(Locale.ROOT,
+                "[%6.1fs] %-8s %-10s n=%-8d %8.1f req/s err=%-6d p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f ms",
+                elapsedSec, phase, operation, count, rps, errors, p50Ms, p90Ms, p99Ms, p999Ms, maxMs);
+            if (notFound + conflict + registryError > 0) {
+                line += String.format(Locale.ROOT, " | NOT_FOUND=%d CONFLICT=%d REGISTRY_ERROR=%d",
+                    notFound, conflict, registryError);
+            }
+            return line;
+        }
+    }
+}
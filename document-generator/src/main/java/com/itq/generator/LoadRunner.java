@@ -0,0 +1,103 @@
+package com.itq.generator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Выполняет {@code count} запросов на виртуальных потоках.
+ * <ul>
+ *   <li>Открытая модель ({@code rate > 0}): i-й запрос запланирован на {@code start + i / rate},
+ *   латентность считается от запланированного момента, а не от фактической отправки. Если сервис
+ *   не успевает и запросы ждут свободного слота из {@code concurrency}, это ожидание попадает в латентность —
+ *   так исправляется coordinated omission.</li>
+ *   <li>Закрытая модель ({@code rate = 0}): {@code concurrency} потоков шлют запросы подряд; это замер
+ *   пропускной способности, латентность здесь — только время обслуживания.</li>
+ * </ul>
+ */
+final class LoadRunner {
+
+    /** Вызов API; возвращает null при успехе или тип ошибки для отчёта. */
+    @FunctionalInterface
+    interface Call {
+        String execute() throws Exception;
+    }
+
+    /** Запрос и операция, в статистику которой он попадает. */
+    record Request(OperationStats stats, Call call) {
+    }
+
+    /** Источник запросов: по номеру запроса выбирает операцию и готовит вызов. */
+    @FunctionalInterface
+    interface Workload {
+        Request next(long seq);
+    }
+
+    private final GeneratorConfig config;
+
+    LoadRunner(GeneratorConfig config) {
+        this.config = config;
+    }
+
+    void run(Workload workload) {
+        if (config.openModel()) {
+            runOpen(workload);
+        } else {
+            runClosed(workload);
+        }
+    }
+
+    private void runOpen(Workload workload) {
+        Semaphore slots = new Semaphore(config.concurrency());
+        double intervalNanos = 1_000_000_000d / config.rate();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < config.count(); i++) {
+                long intended = start + (long) (i * intervalNanos);
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long seq = i;
+                executor.execute(() -> {
+                    slots.acquireUninterruptibly();
+                    try {
+                        execute(workload, seq, intended);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void runClosed(Workload workload) {
+        AtomicLong next = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < config.concurrency(); t++) {
+                executor.execute(() -> {
+                    long seq;
+                    while ((seq = next.getAndIncrement()) < config.count()) {
+                        execute(workload, seq, System.nanoTime());
+                    }
+                });
+            }
+        }
+    }
+
+    private static void execute(Workload workload, long seq, long startNanos) {
+        Request request = workload.next(seq);
+        String error;
+        try {
+            error = request.call().execute();
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName();
+        }
+        request.stats().record(System.nanoTime() - startNanos);
+        if (error != null) {
+            request.stats().recordError(error);
+        }
+    }
+}
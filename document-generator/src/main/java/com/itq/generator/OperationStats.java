@@ -0,0 +1,100 @@
+package com.itq.generator;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Латентность и исходы одной операции. Рабочие потоки пишут в {@link Recorder} без блокировок,
+ * поток отчёта забирает интервальную гистограмму и копит из неё итоговую.
+ * <p>
+ * Исходы считаются двух видов: ошибки запросов ({@link #recordError}) и результаты элементов пакетных
+ * операций ({@link #recordResult}) — например, CONFLICT по одному id внутри успешного ответа submit.
+ */
+final class OperationStats {
+
+    /** Типы исходов, которые выводятся отдельными колонками. */
+    static final String NOT_FOUND = "NOT_FOUND";
+    static final String CONFLICT = "CONFLICT";
+    static final String REGISTRY_ERROR = "REGISTRY_ERROR";
+
+    /** Латентность хранится в микросекундах; потолок — час, точность — 3 значащие цифры. */
+    private static final long HIGHEST_TRACKABLE_MICROS = 3_600_000_000L;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> results = new ConcurrentHashMap<>();
+    private final LongAdder intervalErrors = new LongAdder();
+    private final Map<String, LongAdder> intervalOutcomes = new ConcurrentHashMap<>();
+    private Histogram intervalHistogram;
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long latencyNanos) {
+        recorder.recordValue(Math.min(Math.max(latencyNanos / 1_000, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordError(String type) {
+        errors.computeIfAbsent(type, k -> new LongAdder()).increment();
+        intervalErrors.increment();
+        intervalOutcomes.computeIfAbsent(type, k -> new LongAdder()).increment();
+    }
+
+    void recordResult(String type, long count) {
+        results.computeIfAbsent(type, k -> new LongAdder()).add(count);
+        intervalOutcomes.computeIfAbsent(type, k -> new LongAdder()).add(count);
+    }
+
+    /** Закрывает интервал: возвращает его гистограмму и добавляет её в итоговую. Вызывается только потоком отчёта. */
+    Interval closeInterval() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        total.add(intervalHistogram);
+        Map<String, Long> outcomes = new TreeMap<>();
+        intervalOutcomes.forEach((type, count) -> outcomes.put(type, count.sumThenReset()));
+        return new Interval(intervalHistogram, intervalErrors.sumThenReset(), outcomes);
+    }
+
+    Histogram total() {
+        return total;
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, Long> errorsByType() {
+        return snapshot(errors);
+    }
+
+    Map<String, Long> resultsByType() {
+        return snapshot(results);
+    }
+
+    /** Ошибки запросов и результаты элементов вместе — для колонок NOT_FOUND / CONFLICT / REGISTRY_ERROR. */
+    Map<String, Long> totalOutcomes() {
+        Map<String, Long> outcomes = snapshot(results);
+        errors.forEach((type, count) -> outcomes.merge(type, count.sum(), Long::sum));
+        return outcomes;
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((type, count) -> result.put(type, count.sum()));
+        return result;
+    }
+
+    record Interval(Histogram histogram, long errors, Map<String, Long> outcomes) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.itq.generator;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Параметры сценарного режима ({@code mode=scenario}), ключи {@code scenario.*} в generator.properties.
+ *
+ * @param mix            веса операций, например {@code create:30,submit:10,approve:10,get:30,search:10,lookup:10}
+ * @param batchSize      id в одном submit / approve
+ * @param lookupSize     id в одном запросе {@code GET /documents?ids=}
+ * @param seed           сколько документов создать перед замером (через /documents/batch), чтобы чтениям было что читать
+ * @param idPattern      выбор id для чтений и повторов: uniform — равномерно, hotkey — в основном «горячие»
+ * @param hotFraction    доля «горячих» id (самые новые документы)
+ * @param hotProbability вероятность выбрать «горячий» id в режиме hotkey
+ * @param conflictRatio  доля id в submit / approve, заменяемых уже обработанными (ожидается CONFLICT)
+ * @param missingRatio   доля несуществующих id во всех операциях по id (ожидается NOT_FOUND)
+ */
+record ScenarioConfig(Map<ScenarioConfig.Op, Integer> mix, int batchSize, int lookupSize, int seed,
+                      IdPattern idPattern, double hotFraction, double hotProbability,
+                      double conflictRatio, double missingRatio) {
+
+    enum Op { CREATE, SUBMIT, APPROVE, GET, SEARCH, LOOKUP }
+
+    enum IdPattern { UNIFORM, HOTKEY }
+
+    static final String[] KEYS = {
+        "scenario.mix", "scenario.batchSize", "scenario.lookupSize", "scenario.seed", "scenario.ids",
+        "scenario.hotFraction", "scenario.hotProbability", "scenario.conflictRatio", "scenario.missingRatio"
+    };
+
+    private static final String DEFAULT_MIX = "create:30,submit:10,approve:10,get:30,search:10,lookup:10";
+
+    static ScenarioConfig from(Properties props) {
+        Map<Op, Integer> mix = new LinkedHashMap<>();
+        for (String part : props.getProperty("scenario.mix", DEFAULT_MIX).split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid scenario.mix entry '" + part + "', expected op:weight");
+            }
+            Op op;
+            try {
+                op = Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation '" + kv[0] + "' in scenario.mix");
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + op + " must be >= 0");
+            }
+            mix.put(op, weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("scenario.mix must have a positive total weight");
+        }
+        ScenarioConfig config = new ScenarioConfig(
+            mix,
+            Integer.parseInt(props.getProperty("scenario.batchSize", "50").trim()),
+            Integer.parseInt(props.getProperty("scenario.lookupSize", "20").trim()),
+            Integer.parseInt(props.getProperty("scenario.seed", "1000").trim()),
+            parseIdPattern(props.getProperty("scenario.ids", "uniform")),
+            Double.parseDouble(props.getProperty("scenario.hotFraction", "0.01").trim()),
+            Double.parseDouble(props.getProperty("scenario.hotProbability", "0.9").trim()),
+            Double.parseDouble(props.getProperty("scenario.conflictRatio", "0.05").trim()),
+            Double.parseDouble(props.getProperty("scenario.missingRatio", "0.01").trim())
+        );
+        if (config.batchSize < 1 || config.batchSize > 1000) {
+            throw new IllegalArgumentException("scenario.batchSize must be between 1 and 1000");
+        }
+        if (config.lookupSize < 1) {
+            throw new IllegalArgumentException("scenario.lookupSize must be positive");
+        }
+        if (config.hotFraction <= 0 || config.hotFraction > 1) {
+            throw new IllegalArgumentException("scenario.hotFraction must be in (0, 1]");
+        }
+        return config;
+    }
+
+    private static IdPattern parseIdPattern(String value) {
+        try {
+            return IdPattern.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("scenario.ids must be uniform or hotkey");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Смесь операций жизненного цикла документа: create → submit → approve и чтения (get, search, lookup).
+ * <p>
+ * Созданные id попадают в очередь черновиков; submit забирает из неё пачку, успешно отправленные id идут
+ * в очередь на approve. Если очередь пуста, операция заменяется предыдущим шагом цикла (submit → create,
+ * approve → submit), чтобы смесь не вырождалась в запросы без работы. Доли конфликтов и несуществующих id
+ * задаются явно, чтобы нагрузка проверяла и пути ошибок, а не только успешный сценарий.
+ */
+final class ScenarioWorkload implements LoadRunner.Workload {
+
+    private static final String INITIATOR = "Generator";
+    private static final int AUTHORS = 50;
+    private static final int SEARCH_PAGE_SIZE = 20;
+    private static final int SEED_CHUNK = 1000;
+    private static final String[] STATUSES = {"DRAFT", "SUBMITTED", "APPROVED"};
+
+    private final ScenarioConfig config;
+    private final ServiceApi api;
+    private final Map<ScenarioConfig.Op, OperationStats> stats = new EnumMap<>(ScenarioConfig.Op.class);
+    private final ScenarioConfig.Op[] ops;
+    private final int[] cumulativeWeights;
+
+    /** Все известные id в порядке создания (хвост — «горячие» документы). */
+    private final List<Long> ids = new ArrayList<>();
+    /** Утверждённые id — источник конфликтов для submit и approve. */
+    private final List<Long> approved = new ArrayList<>();
+    private final Queue<Long> drafts = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> submitted = new ConcurrentLinkedQueue<>();
+
+    ScenarioWorkload(ScenarioConfig config, ServiceApi api) {
+        this.config = config;
+        this.api = api;
+        List<ScenarioConfig.Op> weighted = config.mix().entrySet().stream()
+            .filter(e -> e.getValue() > 0).map(Map.Entry::getKey).toList();
+        this.ops = weighted.toArray(ScenarioConfig.Op[]::new);
+        this.cumulativeWeights = new int[ops.length];
+        int sum = 0;
+        for (int i = 0; i < ops.length; i++) {
+            sum += config.mix().get(ops[i]);
+            cumulativeWeights[i] = sum;
+        }
+        for (ScenarioConfig.Op op : ScenarioConfig.Op.values()) {
+            stats.put(op, new OperationStats(op.name().toLowerCase()));
+        }
+    }
+
+    /** Статистика по операциям из смеси, в порядке {@link ScenarioConfig.Op}. */
+    List<OperationStats> stats() {
+        return stats.entrySet().stream()
+            .filter(e -> config.mix().getOrDefault(e.getKey(), 0) > 0)
+            .map(Map.Entry::getValue)
+            .toList();
+    }
+
+    /** Создаёт {@code scenario.seed} черновиков до начала замера, чтобы чтениям и submit было с чем работать. */
+    void seed() throws Exception {
+        for (int created = 0; created < config.seed(); created += SEED_CHUNK) {
+            List<String> titles = IntStream.range(created, Math.min(created + SEED_CHUNK, config.seed()))
+                .mapToObj(i -> "Seed #" + (i + 1))
+                .toList();
+            ServiceApi.Response response = api.createBatch(INITIATOR, author(created), titles);
+            if (!response.ok()) {
+                throw new IllegalStateException("Seeding failed: " + response.errorType());
+            }
+            List<Long> batch = new ArrayList<>();
+            response.body().get("ids").forEach(id -> batch.add(id.asLong()));
+            addCreated(batch);
+        }
+    }
+
+    @Override
+    public LoadRunner.Request next(long seq) {
+        ScenarioConfig.Op op = pick();
+        if (op == ScenarioConfig.Op.APPROVE && submitted.isEmpty()) {
+            op = ScenarioConfig.Op.SUBMIT;
+        }
+        if (op == ScenarioConfig.Op.SUBMIT && drafts.isEmpty()) {
+            op = ScenarioConfig.Op.CREATE;
+        }
+        if (op != ScenarioConfig.Op.CREATE && knownIds() == 0) {
+            op = ScenarioConfig.Op.CREATE;
+        }
+        OperationStats operation = stats.get(op);
+        return switch (op) {
+            case CREATE -> new LoadRunner.Request(operation, () -> create(seq));
+            case SUBMIT -> {
+                Batch batch = withInjected(drafts);
+                yield new LoadRunner.Request(operation, () -> submit(batch, operation));
+            }
+            case APPROVE -> {
+                Batch batch = withInjected(submitted);
+                yield new LoadRunner.Request(operation, () -> approve(batch, operation));
+            }
+            case GET -> {
+                long id = missing() ? missingId() : pickId();
+                yield new LoadRunner.Request(operation, () -> api.getWithHistory(id).errorType());
+            }
+            case SEARCH -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                String status = random.nextBoolean() ? STATUSES[random.nextInt(STATUSES.length)] : null;
+                String author = author(random.nextInt(AUTHORS));
+                yield new LoadRunner.Request(operation, () -> api.search(status, author, SEARCH_PAGE_SIZE).errorType());
+            }
+            case LOOKUP -> {
+                Set<Long> batch = new LinkedHashSet<>();
+                for (int i = 0; i < config.lookupSize(); i++) {
+                    batch.add(missing() ? missingId() : pickId());
+                }
+                yield new LoadRunner.Request(operation, () -> api.lookup(batch).errorType());
+            }
+        };
+    }
+
+    private String create(long seq) throws Exception {
+        ServiceApi.Response response = api.create(INITIATOR, author(seq), "Document #" + (seq + 1));
+        if (response.ok()) {
+            addCreated(List.of(response.body().get("id").asLong()));
+        }
+        return response.errorType();
+    }
+
+    private String submit(Batch batch, OperationStats operation) throws Exception {
+        ServiceApi.Response response = api.submit(INITIATOR, batch.ids());
+        if (response.ok()) {
+            submitted.addAll(record(response.body(), operation));
+        } else {
+            drafts.addAll(batch.polled());
+        }
+        return response.errorType();
+    }
+
+    private String approve(Batch batch, OperationStats operation) throws Exception {
+        ServiceApi.Response response = api.approve(INITIATOR, batch.ids());
+        if (response.ok()) {
+            List<Long> succeeded = record(response.body(), operation);
+            synchronized (approved) {
+                approved.addAll(succeeded);
+            }
+        } else {
+            submitted.addAll(batch.polled());
+        }
+        return response.errorType();
+    }
+
+    /** Учитывает результаты элементов пакетного ответа и возвращает успешно обработанные id. */
+    private static List<Long> record(JsonNode body, OperationStats operation) {
+        Map<String, Long> counts = new TreeMap<>();
+        List<Long> succeeded = new ArrayList<>();
+        for (JsonNode item : body.get("results")) {
+            String result = item.get("result").asText();
+            counts.merge(result, 1L, Long::sum);
+            if ("SUCCESS".equals(result)) {
+                succeeded.add(item.get("id").asLong());
+            }
+        }
+        counts.forEach(operation::recordResult);
+        return succeeded;
+    }
+
+    /**
+     * Пачка не больше {@code scenario.batchSize}: уже утверждённые (конфликт) и несуществующие id занимают места
+     * id из очереди, а не добавляются сверх них — иначе пачка на пределе превысила бы лимит сервиса в 1000 id.
+     */
+    private Batch withInjected(Queue<Long> queue) {
+        int size = config.batchSize();
+        boolean missing = missing();
+        int conflicts = Math.min((int) Math.round(size * config.conflictRatio()), size - (missing ? 1 : 0));
+        List<Long> polled = poll(queue, size - conflicts - (missing ? 1 : 0));
+        List<Long> result = new ArrayList<>(polled);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        synchronized (approved) {
+            for (int i = 0; i < conflicts && !approved.isEmpty(); i++) {
+                result.add(approved.get(random.nextInt(approved.size())));
+            }
+        }
+        if (result.isEmpty() || missing) {
+            result.add(missingId());
+        }
+        return new Batch(result.stream().distinct().toList(), polled);
+    }
+
+    private ScenarioConfig.Op pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < ops.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return ops[i];
+            }
+        }
+        return ops[ops.length - 1];
+    }
+
+    /** Равномерно по всем id или, в режиме hotkey, с вероятностью hotProbability — из самых новых hotFraction. */
+    private long pickId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        synchronized (ids) {
+            int size = ids.size();
+            if (config.idPattern() == ScenarioConfig.IdPattern.HOTKEY && random.nextDouble() < config.hotProbability()) {
+                int hot = Math.max(1, (int) (size * config.hotFraction()));
+                return ids.get(size - 1 - random.nextInt(hot));
+            }
+            return ids.get(random.nextInt(size));
+        }
+    }
+
+    private int knownIds() {
+        synchronized (ids) {
+            return ids.size();
+        }
+    }
+
+    private void addCreated(List<Long> created) {
+        synchronized (ids) {
+            ids.addAll(created);
+        }
+        drafts.addAll(created);
+    }
+
+    private boolean missing() {
+        return ThreadLocalRandom.current().nextDouble() < config.missingRatio();
+    }
+
+    /** Id, которого заведомо нет в базе: последовательность сервиса до таких значений не дойдёт. */
+    private static long missingId() {
+        return Long.MAX_VALUE - ThreadLocalRandom.current().nextInt(1_000_000);
+    }
+
+    private static List<Long> poll(Queue<Long> queue, int max) {
+        List<Long> batch = new ArrayList<>(max);
+        Long id;
+        while (batch.size() < max && (id = queue.poll()) != null) {
+            batch.add(id);
+        }
+        return batch;
+    }
+
+    private static String author(long n) {
+        return "Generator-" + (n % AUTHORS);
+    }
+
+    /**
+     * @param ids    отправляемые id вместе с подмешанными
+     * @param polled id, взятые из очереди: только они возвращаются в неё, если запрос целиком не прошёл
+     */
+    private record Batch(List<Long> ids, List<Long> polled) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.itq.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** HTTP-вызовы API документов, которые использует генератор. */
+final class ServiceApi {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    ServiceApi(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    /** Ответ сервиса: код и разобранное тело (null, если тело пустое или не JSON). */
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        /** Тип ошибки для отчёта: code из ApiError (NOT_FOUND, CONFLICT, REGISTRY_ERROR, ...) или HTTP-код. */
+        String errorType() {
+            if (ok()) {
+                return null;
+            }
+            return body != null && body.hasNonNull("code") ? body.get("code").asText() : "HTTP " + status;
+        }
+    }
+
+    Response create(String initiator, String author, String title) throws IOException, InterruptedException {
+        return post("/documents", document(initiator, author, title));
+    }
+
+    Response createBatch(String initiator, String author, List<String> titles) throws IOException, InterruptedException {
+        ObjectNode body = MAPPER.createObjectNode();
+        ArrayNode documents = body.putArray("documents");
+        titles.forEach(title -> documents.add(document(initiator, author, title)));
+        return post("/documents/batch", body);
+    }
+
+    Response submit(String initiator, Collection<Long> ids) throws IOException, InterruptedException {
+        return post("/documents/submit", batchOp(initiator, ids));
+    }
+
+    Response approve(String initiator, Collection<Long> ids) throws IOException, InterruptedException {
+        return post("/documents/approve", batchOp(initiator, ids));
+    }
+
+    Response getWithHistory(long id) throws IOException, InterruptedException {
+        return get("/documents/" + id + "?withHistory=true");
+    }
+
+    Response lookup(Collection<Long> ids) throws IOException, InterruptedException {
+        return get("/documents?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    Response search(String status, String author, int size) throws IOException, InterruptedException {
+        StringBuilder query = new StringBuilder("/documents/search?size=").append(size);
+        if (status != null) {
+            query.append("&status=").append(status);
+        }
+        if (author != null) {
+            query.append("&author=").append(URLEncoder.encode(author, StandardCharsets.UTF_8));
+        }
+        return get(query.toString());
+    }
+
+    private static ObjectNode document(String initiator, String author, String title) {
+        return MAPPER.createObjectNode()
+            .put("initiator", initiator)
+            .put("author", author)
+            .put("title", title);
+    }
+
+    private static ObjectNode batchOp(String initiator, Collection<Long> ids) {
+        ObjectNode body = MAPPER.createObjectNode().put("initiator", initiator);
+        ArrayNode array = body.putArray("ids");
+        ids.forEach(array::add);
+        return body;
+    }
+
+    private Response post(String path, JsonNode body) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)))
+            .timeout(TIMEOUT)
+            .build());
+    }
+
+    private Response get(String pathAndQuery) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + pathAndQuery))
+            .GET()
+            .timeout(TIMEOUT)
+            .build());
+    }
+
+    private Response send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode body = null;
+        if (response.body().length > 0) {
+            try {
+                body = MAPPER.readTree(response.body());
+            } catch (IOException e) {
+                // не JSON (например, HTML страницы ошибки контейнера) — достаточно кода ответа
+            }
+        }
+        return new Response(response.statusCode(), body);
+    }
+}
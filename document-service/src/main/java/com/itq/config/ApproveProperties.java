@@ -0,0 +1,42 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "document.approve")
+@Setter
+@Getter
+public class ApproveProperties {
+    /** Сколько документов утверждается одной транзакцией в пакетном approve. */
+    private int chunkSize = 200;
+    /** Как утверждение одного документа ({@code ApproveOneExecutor}) защищается от параллельного утверждения того же документа. */
+    private LockMode lockMode = LockMode.PESSIMISTIC;
+    /** Границы транзакций пакетного approve ({@code DocumentService.approve}). */
+    private TransactionMode transactionMode = TransactionMode.PER_CALL;
+
+    public enum LockMode {
+        /** {@code select ... for update}: конкуренты ждут блокировку строки и проверяют статус по очереди. */
+        PESSIMISTIC,
+        /**
+         * Условный {@code update ... where status = 'SUBMITTED'}: выигрывает одна транзакция, остальные получают
+         * CONFLICT по числу изменённых строк, не удерживая блокировку; уже утверждённый документ отклоняется без блокировок.
+         */
+        OPTIMISTIC
+    }
+
+    public enum TransactionMode {
+        /**
+         * Внешняя транзакция на весь вызов, пачки и повтор по одному документу — в собственных (REQUIRES_NEW).
+         * Вызов держит два соединения пула: приостановленное внешнее и текущее внутреннее.
+         */
+        PER_CALL,
+        /**
+         * Без внешней транзакции: каждая пачка и каждый повтор по одному документу — отдельная транзакция.
+         * Откат по документу тот же, но вызов держит не больше одного соединения и не ждёт второе, удерживая первое.
+         */
+        PER_CHUNK
+    }
+}
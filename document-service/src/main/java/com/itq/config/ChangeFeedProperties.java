@@ -0,0 +1,32 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "document.changes")
+@Setter
+@Getter
+public class ChangeFeedProperties {
+    /** Сколько неопубликованных записей получает позиции одной транзакцией публикатора. */
+    private int publishBatchSize = 1000;
+    /**
+     * Страховочный интервал публикации (мс). Обычно записи публикуются сразу после коммита смены статуса;
+     * по интервалу подбираются те, чей коммит не дошёл до публикации (например, реплика упала сразу после него).
+     */
+    private long publishIntervalMs = 1000;
+    /** Как часто ожидающие long-poll запросы проверяют ленту на записи, опубликованные другими репликами (мс). */
+    private long pollIntervalMs = 200;
+    /** Потолок waitMs для long-poll. */
+    private Duration maxWait = Duration.ofSeconds(30);
+    /** Сколько хранятся опубликованные записи ленты; потребитель, отставший больше, получает 410. */
+    private Duration retention = Duration.ofDays(7);
+    /** Когда удалять записи старше retention; "-" — не удалять. */
+    private String retentionCron = "0 */10 * * * *";
+    /** Сколько записей удаляется одной транзакцией при очистке. */
+    private int pruneBatchSize = 10_000;
+}
@@ -0,0 +1,21 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "document.concurrent-approval")
+@Setter
+@Getter
+public class ConcurrentApprovalProperties {
+    /** Потоков общего пула теста конкурентного утверждения — больше попыток одновременно не выполняется, сколько бы threads ни запросили. */
+    private int poolSize = 16;
+    /** Сколько попыток может ждать в очереди пула; если вызов не помещается, он отклоняется с 503. */
+    private int queueCapacity = 10_000;
+    /** Сколько один вызов ждёт завершения всех своих попыток; незавершённые отменяются и считаются ошибками. */
+    private Duration timeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,74 @@
+package com.itq.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Основная база ({@code spring.datasource}) и реплики для чтения ({@code document.datasource.replicas}).
+ * Приложение (JPA, репозитории) получает {@link ReplicaRoutingDataSource} за {@link LazyConnectionDataSourceProxy};
+ * миграции Liquibase и всё, что должно писать или считать соединения основного пула, берут {@code primaryDataSource}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties properties,
+                                                      ReplicaProperties replicaProperties,
+                                                      MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replica.getUrl())
+                .username(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername())
+                .password(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword())
+                .build();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // пулы реплик не бины: hikaricp_* с тегом pool подключаются вручную
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+            replicaProperties.getReadYourWritesWindow().toMillis(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableReplicas(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(ReplicaRoutingDataSource.class).enableReplicas();
+    }
+}
@@ -0,0 +1,21 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "document.cache")
+@Setter
+@Getter
+public class DocumentCacheProperties {
+    /** Включить кэш документов по id для getDocument / getDocumentsByIds. */
+    private boolean enabled = true;
+    /** Максимум документов в кэше; сверх него вытесняются редко читаемые (W-TinyLFU). */
+    private long maxSize = 100_000;
+    /** Время жизни записи после загрузки — страховка на случай изменений в обход сервиса. */
+    private Duration ttl = Duration.ofMinutes(10);
+}
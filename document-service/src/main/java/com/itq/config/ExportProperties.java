@@ -0,0 +1,15 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "document.export")
+@Setter
+@Getter
+public class ExportProperties {
+    /** Сколько строк драйвер читает из курсора за раз; после каждой такой порции ответ сбрасывается клиенту. */
+    private int fetchSize = 1000;
+}
@@ -1,6 +1,7 @@
 package com.itq.config;
 
 import com.itq.dto.ApiError;
+import com.itq.exception.ChangeCursorExpiredException;
 import com.itq.exception.DocumentNotFoundException;
 import com.itq.exception.RegistryException;
 import com.itq.exception.StatusConflictException;
@@ -12,7 +13,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -43,6 +46,13 @@ public class GlobalExceptionHandler {
                 : ApiError.of("VALIDATION_ERROR", ex.getMessage()));
     }
 
+    @ExceptionHandler(ChangeCursorExpiredException.class)
+    public ResponseEntity<ApiError> handleCursorExpired(ChangeCursorExpiredException ex) {
+        log.debug("Change cursor expired: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE)
+            .body(ApiError.of("CURSOR_EXPIRED", ex.getMessage()));
+    }
+
     @ExceptionHandler(RegistryException.class)
     public ResponseEntity<ApiError> handleRegistry(RegistryException ex) {
         log.warn("Registry error: {}", ex.getMessage());
@@ -50,6 +60,13 @@ public class GlobalExceptionHandler {
             .body(ApiError.of("REGISTRY_ERROR", ex.getMessage()));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiError> handleRejected(RejectedExecutionException ex) {
+        log.warn("Executor busy: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(ApiError.of("BUSY", ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleBeanValidation(MethodArgumentNotValidException ex) {
         var details = ex.getBindingResult().getFieldErrors().stream()
@@ -59,6 +76,12 @@ public class GlobalExceptionHandler {
             .body(ApiError.of("VALIDATION_ERROR", "Invalid request", details));
     }
 
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleClientDisconnected(AsyncRequestNotUsableException ex) {
+        // клиент закрыл соединение посреди потокового ответа (/export) — писать ответ уже некуда
+        log.debug("Client disconnected: {}", ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex) {
         log.error("Unexpected error", ex);
@@ -0,0 +1,19 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "document.history")
+@Setter
+@Getter
+public class HistoryArchiveProperties {
+    /** Сколько месяцев (включая текущий) история остаётся в секциях history; более старые уходят в history_archive. */
+    private int hotMonths = 12;
+    /** На сколько месяцев вперёд заранее создаются секции. */
+    private int partitionsAhead = 3;
+    /** Когда создавать секции и архивировать холодные месяцы; "-" — не архивировать. */
+    private String archiveCron = "0 30 3 * * *";
+}
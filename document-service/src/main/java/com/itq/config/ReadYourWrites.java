@@ -0,0 +1,79 @@
+package com.itq.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Окно read-your-writes после записи. В HTTP-запросе окно хранится в атрибуте запроса и передаётся клиенту
+ * cookie {@value #COOKIE}, поэтому следующие запросы того же клиента тоже читают основную базу;
+ * вне запроса (воркеры, тесты) — в потоке.
+ */
+final class ReadYourWrites {
+
+    static final String COOKIE = "document-primary-until";
+
+    private static final ThreadLocal<Long> UNTIL = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void markWrite(long windowMillis) {
+        if (windowMillis <= 0) {
+            return;
+        }
+        long until = System.currentTimeMillis() + windowMillis;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            boolean first = attributes.getAttribute(COOKIE, RequestAttributes.SCOPE_REQUEST) == null;
+            attributes.setAttribute(COOKIE, until, RequestAttributes.SCOPE_REQUEST);
+            HttpServletResponse response = attributes.getResponse();
+            // одной cookie на запрос достаточно: окно отсчитывается от первой записи с запасом на время вызова
+            if (first && response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+                response.addCookie(cookie);
+            }
+        } else {
+            UNTIL.set(until);
+        }
+    }
+
+    static boolean active() {
+        return until() > System.currentTimeMillis();
+    }
+
+    /** Сбрасывает окно потока и текущего запроса (cookie клиента, пришедшая с запросом, остаётся в силе). */
+    static void reset() {
+        UNTIL.remove();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            attributes.removeAttribute(COOKIE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static long until() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            if (attributes.getAttribute(COOKIE, RequestAttributes.SCOPE_REQUEST) instanceof Long until) {
+                return until;
+            }
+            Cookie[] cookies = attributes.getRequest().getCookies();
+            if (cookies != null) {
+                for (Cookie cookie : cookies) {
+                    if (COOKIE.equals(cookie.getName())) {
+                        try {
+                            return Long.parseLong(cookie.getValue());
+                        } catch (NumberFormatException e) {
+                            return 0;
+                        }
+                    }
+                }
+            }
+            return 0;
+        }
+        Long until = UNTIL.get();
+        return until != null ? until : 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "document.datasource")
+@Setter
+@Getter
+public class ReplicaProperties {
+    /** Реплики для чтения; пусто — все запросы идут в основную базу (spring.datasource). */
+    private List<Replica> replicas = new ArrayList<>();
+    /** Сколько после записи чтения того же потока или HTTP-клиента (cookie) идут в основную базу. */
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    @Setter
+    @Getter
+    public static class Replica {
+        private String url;
+        /** По умолчанию — как у основной базы. */
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,130 @@
+package com.itq.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Выбирает базу для нового соединения: транзакции на запись — основная, {@code readOnly}-транзакции и чтения
+ * вне транзакции — реплики по кругу. Основная база используется и для чтений:
+ * <ul>
+ *   <li>до {@link #enableReplicas()} (миграции, схема, инициализация при старте);</li>
+ *   <li>в окне read-your-writes после записи того же потока или HTTP-клиента ({@link ReadYourWrites});</li>
+ *   <li>внутри {@link #onPrimary}.</li>
+ * </ul>
+ * Решение принимается, когда соединение действительно нужно, поэтому источник оборачивается в
+ * {@code LazyConnectionDataSourceProxy}: к этому моменту флаг readOnly транзакции уже выставлен.
+ * Выбор считается метрикой {@code document.datasource.route} с тегами {@code route} и {@code reason}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Integer> PINNED = ThreadLocal.withInitial(() -> 0);
+
+    private final List<HikariDataSource> replicas;
+    private final List<String> replicaKeys;
+    private final long readYourWritesMillis;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile boolean replicasEnabled;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    long readYourWritesMillis, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.replicaKeys = replicas.stream().map(HikariDataSource::getPoolName).toList();
+        this.readYourWritesMillis = readYourWritesMillis;
+        this.meterRegistry = meterRegistry;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKeys.get(i), replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Выполняет {@code call}, открывая новые соединения потока в основной базе. Для чтений, результат которых
+     * нельзя брать с отстающей реплики (заполнение кэша, проверка только что записанного).
+     * Соединение, уже взятое текущей транзакцией, не меняется.
+     */
+    public static <T> T onPrimary(Supplier<T> call) {
+        PINNED.set(PINNED.get() + 1);
+        try {
+            return call.get();
+        } finally {
+            PINNED.set(PINNED.get() - 1);
+        }
+    }
+
+    /** Включает чтение с реплик; до этого все соединения — в основную базу. */
+    public void enableReplicas() {
+        replicasEnabled = true;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean write = TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (write) {
+            markWrite();
+            return route(PRIMARY, "write");
+        }
+        if (replicas.isEmpty()) {
+            return route(PRIMARY, "read");
+        }
+        if (!replicasEnabled) {
+            return route(PRIMARY, "startup");
+        }
+        if (PINNED.get() > 0) {
+            return route(PRIMARY, "pinned");
+        }
+        if (ReadYourWrites.active()) {
+            return route(PRIMARY, "read_your_writes");
+        }
+        return route(replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size())), "read");
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private void markWrite() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        ReadYourWrites.markWrite(readYourWritesMillis);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // окно отсчитывается и от завершения транзакции: длинная запись не съедает его целиком
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ReadYourWrites.markWrite(readYourWritesMillis);
+                }
+            });
+        }
+    }
+
+    private String route(String key, String reason) {
+        counters.computeIfAbsent(key + '|' + reason, k -> Counter.builder("document.datasource.route")
+                .description("Соединения, выданные основной базой и репликами, по причине выбора")
+                .tags("route", key, "reason", reason)
+                .register(meterRegistry))
+            .increment();
+        return key;
+    }
+}
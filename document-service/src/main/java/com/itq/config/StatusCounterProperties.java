@@ -0,0 +1,15 @@
+package com.itq.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "document.counters")
+@Setter
+@Getter
+public class StatusCounterProperties {
+    /** Число полос на статус: конкурирующие транзакции обновляют разные строки счётчика. */
+    private int stripes = 8;
+}
@@ -5,12 +5,32 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+
 @Component
 @ConfigurationProperties(prefix = "document.workers")
 @Setter
 @Getter
 public class WorkerProperties {
+    /** Начальный размер пачки; дальше подстраивается под targetBatchLatencyMs. */
     private int batchSize = 50;
+    private int minBatchSize = 10;
+    /** Не больше лимита сервиса на один submit/approve (1000 id); большее значение урезается до него. */
+    private int maxBatchSize = 1000;
+    /** Желаемое время обработки одной пачки (мс). */
+    private long targetBatchLatencyMs = 1000;
+    /** Сколько максимум воркер разгребает очередь подряд, прежде чем уступить поток планировщика (мс). */
+    private long maxDrainMs = 60_000;
+    /** Потолок экспоненциальной паузы, когда очередь пуста (мс). */
+    private long idleBackoffMaxMs = 60_000;
+    /** На сколько частей (id по модулю) делится пачка для параллельной обработки на виртуальных потоках. */
+    private int parallelism = 4;
+    /** Какую долю пула соединений может занять один воркер; ограничивает фактический parallelism. */
+    private double maxPoolShare = 0.5;
     private long submitIntervalMs = 5000;
     private long approveIntervalMs = 5000;
+    /** Идентификатор узла в аренде документов; по умолчанию pid@host. */
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    /** Срок аренды взятой пачки: если узел упал, документы снова станут доступны другим узлам. */
+    private long leaseMs = 300_000;
 }
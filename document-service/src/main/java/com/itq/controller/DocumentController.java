@@ -1,8 +1,12 @@
 package com.itq.controller;
 
 import com.itq.dto.*;
+import com.itq.service.ChangeFeedService;
 import com.itq.service.ConcurrentApprovalService;
+import com.itq.service.DocumentCache;
+import com.itq.service.DocumentExportService;
 import com.itq.service.DocumentService;
+import com.itq.service.StatusCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,8 +20,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +39,10 @@ import java.util.Map;
 public class DocumentController {
     private final DocumentService documentService;
     private final ConcurrentApprovalService concurrentApprovalService;
+    private final StatusCounterService statusCounterService;
+    private final DocumentCache documentCache;
+    private final DocumentExportService documentExportService;
+    private final ChangeFeedService changeFeedService;
 
     @Operation(summary = "Создать документ", description = "Создаёт документ в статусе DRAFT. Уникальный номер генерируется автоматически.")
     @ApiResponses({
@@ -43,33 +56,48 @@ public class DocumentController {
         return Map.of("id", id);
     }
 
-    @Operation(summary = "Получить документ", description = "Возвращает документ по id. С withHistory=true — вместе с историей изменений статусов.")
+    @Operation(summary = "Создать документы пачкой", description = "Создаёт 1–5000 документов в статусе DRAFT одной транзакцией с батчевой вставкой. Возвращает id в порядке запроса. Ошибка валидации любого элемента — 400 без создания документов.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Документы созданы"),
+        @ApiResponse(responseCode = "400", description = "Ошибки валидации с индексами элементов")
+    })
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public DocumentBatchCreateResponse createDocuments(@Valid @RequestBody DocumentBatchCreateRequest request) {
+        return new DocumentBatchCreateResponse(documentService.createDocuments(request));
+    }
+
+    @Operation(summary = "Получить документ", description = "Возвращает документ по id. С withHistory=true — вместе с историей изменений статусов (один запрос). historyLimit — только последние N записей; более старые — запросом с historyBefore = historyNextCursor.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Документ найден"),
+        @ApiResponse(responseCode = "400", description = "Недопустимый historyLimit"),
         @ApiResponse(responseCode = "404", description = "Документ не найден")
     })
     @GetMapping("/{id}")
     public Object getDocument(
         @Parameter(description = "ID документа") @PathVariable Long id,
-        @Parameter(description = "Включить историю изменений") @RequestParam(defaultValue = "false") boolean withHistory
+        @Parameter(description = "Включить историю изменений") @RequestParam(defaultValue = "false") boolean withHistory,
+        @Parameter(description = "Сколько последних записей истории вернуть (1–1000); по умолчанию вся история") @RequestParam(required = false) Integer historyLimit,
+        @Parameter(description = "Курсор historyNextCursor из предыдущего ответа") @RequestParam(required = false) Long historyBefore
     ) {
         if (withHistory) {
-            return documentService.getDocumentWithHistory(id);
+            return documentService.getDocumentWithHistory(id, historyLimit, historyBefore);
         }
         return documentService.getDocument(id);
     }
 
-    @Operation(summary = "Список документов", description = "Пачка по ids — возвращает документы по списку id. Без ids — постраничный список с пагинацией и сортировкой.")
+    @Operation(summary = "Список документов", description = "Пачка по ids — возвращает документы по списку id, с withHistory=true — вместе с историей (одним запросом на все документы, до 1000 id). Без ids — постраничный список с пагинацией и сортировкой.")
     @GetMapping
     public Object getDocuments(
         @Parameter(description = "Список id для пакетного получения") @RequestParam(required = false) List<Long> ids,
+        @Parameter(description = "Для ids: включить историю изменений") @RequestParam(defaultValue = "false") boolean withHistory,
         @Parameter(description = "Номер страницы") @RequestParam(defaultValue = "0") int page,
-        @Parameter(description = "Размер страницы") @RequestParam(defaultValue = "20") int size,
+        @Parameter(description = "Размер страницы (до 1000)") @RequestParam(defaultValue = "20") int size,
         @Parameter(description = "Поле сортировки") @RequestParam(defaultValue = "createdAt") String sortBy,
         @Parameter(description = "Направление: asc/desc") @RequestParam(defaultValue = "desc") String sortDir
     ) {
         if (ids != null && !ids.isEmpty()) {
-            return documentService.getDocumentsByIds(ids);
+            return withHistory ? documentService.getDocumentsWithHistoryByIds(ids) : documentService.getDocumentsByIds(ids);
         }
         Sort sort = sortDir.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
@@ -78,6 +106,31 @@ public class DocumentController {
         return documentService.getDocuments(pageable);
     }
 
+    @Operation(summary = "Документы по списку id", description = "То же, что GET ?ids=, но список передаётся в теле (нет ограничения длины URL). Дубли схлопываются, документы — в порядке первого вхождения id, отсутствующие id — в missingIds. До 10000 различных id.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Найденные документы и отсутствующие id"),
+        @ApiResponse(responseCode = "400", description = "Пустой список или больше 10000 различных id")
+    })
+    @PostMapping("/lookup")
+    public DocumentLookupResponse lookup(@Valid @RequestBody DocumentLookupRequest request) {
+        return documentService.lookupDocuments(request.ids());
+    }
+
+    @Operation(summary = "Список документов (курсор)", description = "Keyset-пагинация без OFFSET и count(*). Первая страница — без cursor, следующие — с nextCursor из предыдущего ответа. sortBy: createdAt | id.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Страница и курсор следующей"),
+        @ApiResponse(responseCode = "400", description = "Недопустимое поле сортировки или курсор")
+    })
+    @GetMapping("/scroll")
+    public CursorPageResponse<DocumentResponse> scroll(
+        @Parameter(description = "Курсор из nextCursor предыдущей страницы") @RequestParam(required = false) String cursor,
+        @Parameter(description = "Размер страницы (1–1000)") @RequestParam(defaultValue = "20") int size,
+        @Parameter(description = "createdAt | id") @RequestParam(defaultValue = "createdAt") String sortBy,
+        @Parameter(description = "Направление: asc/desc") @RequestParam(defaultValue = "desc") String sortDir
+    ) {
+        return documentService.scroll(new SearchCriteria(null, null, null, null), sortBy, sortDir, size, cursor);
+    }
+
     @Operation(summary = "Отправить на согласование", description = "Переводит документы DRAFT → SUBMITTED. Принимает 1–1000 id. Для каждого id: успех / конфликт / не найден.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Результат по каждому id")
@@ -116,9 +169,82 @@ public class DocumentController {
         return documentService.search(criteria, pageable);
     }
 
+    @Operation(summary = "Поиск документов (курсор)", description = "Те же фильтры, что у /search, но с keyset-пагинацией: без OFFSET и count(*). sortBy: createdAt | id.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Страница и курсор следующей"),
+        @ApiResponse(responseCode = "400", description = "Недопустимое поле сортировки или курсор")
+    })
+    @GetMapping("/search/scroll")
+    public CursorPageResponse<DocumentResponse> searchScroll(
+        @Parameter(description = "DRAFT | SUBMITTED | APPROVED") @RequestParam(required = false) String status,
+        @Parameter(description = "Автор документа") @RequestParam(required = false) String author,
+        @Parameter(description = "Начало периода (createdAt)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+        @Parameter(description = "Конец периода (createdAt)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+        @Parameter(description = "Курсор из nextCursor предыдущей страницы") @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String sortDir
+    ) {
+        SearchCriteria criteria = new SearchCriteria(status, author, fromDate, toDate);
+        return documentService.scroll(criteria, sortBy, sortDir, size, cursor);
+    }
+
+    @Operation(summary = "Выгрузка документов", description = "Потоковая выгрузка всех документов, подходящих под фильтры /search, в NDJSON или CSV (порядок по id). Память сервиса не зависит от объёма выгрузки.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Поток NDJSON (application/x-ndjson) или CSV (text/csv)"),
+        @ApiResponse(responseCode = "400", description = "Неизвестный формат или статус")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(description = "DRAFT | SUBMITTED | APPROVED") @RequestParam(required = false) String status,
+        @Parameter(description = "Автор документа") @RequestParam(required = false) String author,
+        @Parameter(description = "Начало периода (createdAt)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+        @Parameter(description = "Конец периода (createdAt)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+        @Parameter(description = "ndjson | csv") @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        DocumentExportService.Format exportFormat = DocumentExportService.Format.parse(format);
+        StreamingResponseBody body = documentExportService.export(
+            new SearchCriteria(status, author, fromDate, toDate), exportFormat);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=documents." + exportFormat.extension())
+            .body(body);
+    }
+
+    @Operation(summary = "Лента изменений статусов", description = "Смены статусов (DRAFT → SUBMITTED, SUBMITTED → APPROVED) по возрастанию позиции после курсора after. Первый запрос — after=0, следующие — after=next из предыдущего ответа. С waitMs > 0 запрос ждёт первую новую запись до waitMs (long-poll) и без новых записей возвращает пустую порцию с тем же next.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Порция изменений и курсор следующей"),
+        @ApiResponse(responseCode = "400", description = "Недопустимые after, limit или waitMs"),
+        @ApiResponse(responseCode = "410", description = "Записи после курсора удалены по сроку хранения")
+    })
+    @GetMapping("/changes")
+    public DeferredResult<ChangeFeedResponse> changes(
+        @Parameter(description = "Последняя полученная позиция; 0 — с начала ленты") @RequestParam(defaultValue = "0") long after,
+        @Parameter(description = "Размер порции (1–1000)") @RequestParam(defaultValue = "100") int limit,
+        @Parameter(description = "Сколько ждать новых записей, мс (0 — не ждать)") @RequestParam(defaultValue = "0") long waitMs
+    ) {
+        return changeFeedService.poll(after, limit, waitMs);
+    }
+
+    @Operation(summary = "Статистика по статусам", description = "Количество документов в каждом статусе. Читается из счётчиков, без count(*) по таблице документов.")
+    @GetMapping("/stats")
+    public DocumentStatsResponse stats() {
+        var counts = statusCounterService.counts();
+        return new DocumentStatsResponse(counts, counts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Operation(summary = "Статистика кэша документов", description = "Попадания и промахи кэша getDocument / пакетного получения по ids.")
+    @GetMapping("/cache/stats")
+    public DocumentCacheStatsResponse cacheStats() {
+        var stats = documentCache.stats();
+        return new DocumentCacheStatsResponse(
+            stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(), documentCache.size());
+    }
+
     @Operation(summary = "Тест конкурентного утверждения", description = "Запускает threads×attempts параллельных попыток утвердить один документ. Ожидается: ровно 1 успех, остальные — конфликт.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Сводка: success/conflict/error count, финальный статус")
+        @ApiResponse(responseCode = "200", description = "Сводка: success/conflict/error count, финальный статус"),
+        @ApiResponse(responseCode = "503", description = "Попытки не помещаются в очередь общего пула")
     })
     @PostMapping("/concurrent-approve-test")
     public ConcurrentApprovalResult concurrentApprovalTest(@Valid @RequestBody ConcurrentApprovalRequest request) {
@@ -129,4 +255,10 @@ public class DocumentController {
                 request.initiator()
         );
     }
+
+    @Operation(summary = "Состояние пула теста конкурентного утверждения", description = "Потоки, выполняемые задачи и глубина очереди общего пула /concurrent-approve-test.")
+    @GetMapping("/concurrent-approve-test/executor")
+    public ExecutorStatsResponse concurrentApprovalExecutorStats() {
+        return concurrentApprovalService.executorStats();
+    }
 }
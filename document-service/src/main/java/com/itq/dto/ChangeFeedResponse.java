@@ -0,0 +1,11 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Порция ленты изменений")
+public record ChangeFeedResponse(
+    @Schema(description = "Изменения по возрастанию позиции") List<DocumentChangeResponse> changes,
+    @Schema(description = "Курсор для следующего запроса (after)") long next
+) {}
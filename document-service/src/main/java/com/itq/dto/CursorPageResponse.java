@@ -0,0 +1,13 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Страница при курсорной (keyset) пагинации — без общего количества элементов")
+public record CursorPageResponse<T>(
+    @Schema(description = "Элементы страницы") List<T> content,
+    @Schema(description = "Запрошенный размер страницы") int size,
+    @Schema(description = "Есть ли следующая страница") boolean hasNext,
+    @Schema(description = "Курсор следующей страницы (передать в параметре cursor); null, если страница последняя") String nextCursor
+) {}
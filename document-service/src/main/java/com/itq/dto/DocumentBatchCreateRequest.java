@@ -0,0 +1,14 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Пакетное создание документов")
+public record DocumentBatchCreateRequest(
+    @Schema(description = "Документы (1–5000)", requiredMode = Schema.RequiredMode.REQUIRED) @NotEmpty(message = "Documents cannot be empty") @Size(min = 1, max = 5000, message = "Documents count must be between 1 and 5000") List<@Valid DocumentCreateRequest> documents
+) {
+}
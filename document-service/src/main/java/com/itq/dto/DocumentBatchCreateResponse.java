@@ -0,0 +1,10 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Результат пакетного создания")
+public record DocumentBatchCreateResponse(
+    @Schema(description = "id созданных документов в порядке запроса") List<Long> ids
+) {}
@@ -0,0 +1,12 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Статистика кэша документов по id")
+public record DocumentCacheStatsResponse(
+    @Schema(description = "Попаданий") long hitCount,
+    @Schema(description = "Промахов (загрузок из БД)") long missCount,
+    @Schema(description = "Доля попаданий, 0..1") double hitRate,
+    @Schema(description = "Вытеснено по размеру или TTL") long evictionCount,
+    @Schema(description = "Документов в кэше (оценка)") long size
+) {}
@@ -0,0 +1,28 @@
+package com.itq.dto;
+
+import com.itq.entity.DocumentChange;
+import com.itq.entity.enums.DocumentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Смена статуса документа в ленте изменений")
+public record DocumentChangeResponse(
+    @Schema(description = "Позиция в ленте; следующий запрос — after=последняя полученная позиция") long position,
+    @Schema(description = "ID документа") Long documentId,
+    @Schema(description = "Статус до") DocumentStatus fromStatus,
+    @Schema(description = "Статус после") DocumentStatus toStatus,
+    @Schema(description = "Инициатор") String initiator,
+    @Schema(description = "Когда статус изменён") LocalDateTime changedAt) {
+
+    public static DocumentChangeResponse from(DocumentChange change) {
+        return new DocumentChangeResponse(
+            change.getPosition(),
+            change.getDocumentId(),
+            change.getFromStatus(),
+            change.getToStatus(),
+            change.getInitiator(),
+            change.getCreatedAt()
+        );
+    }
+}
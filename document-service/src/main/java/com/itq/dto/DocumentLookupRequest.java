@@ -0,0 +1,15 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+@Schema(description = "Получение документов по списку id")
+public record DocumentLookupRequest(
+    @Schema(description = "id документов (до 10000 различных); дубли допускаются", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "Ids cannot be empty")
+    List<@NotNull(message = "Id cannot be null") Long> ids
+) {
+}
@@ -0,0 +1,11 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Результат получения документов по списку id")
+public record DocumentLookupResponse(
+    @Schema(description = "Найденные документы в порядке первого вхождения id в запросе") List<DocumentResponse> documents,
+    @Schema(description = "id, для которых документа нет, в порядке запроса") List<Long> missingIds
+) {}
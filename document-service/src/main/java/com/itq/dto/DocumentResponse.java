@@ -1,5 +1,6 @@
 package com.itq.dto;
 
+import com.itq.entity.Document;
 import com.itq.entity.enums.DocumentStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -13,4 +14,17 @@ public record DocumentResponse(
     @Schema(description = "Название") String title,
     @Schema(description = "DRAFT | SUBMITTED | APPROVED") DocumentStatus status,
     @Schema(description = "Дата создания") LocalDateTime createdAt,
-    @Schema(description = "Дата обновления") LocalDateTime updatedAt) {}
+    @Schema(description = "Дата обновления") LocalDateTime updatedAt) {
+
+    public static DocumentResponse from(Document doc) {
+        return new DocumentResponse(
+            doc.getId(),
+            doc.getUniqueNumber() != null ? doc.getUniqueNumber().toString() : null,
+            doc.getAuthor(),
+            doc.getTitle(),
+            doc.getStatus(),
+            doc.getCreatedAt(),
+            doc.getUpdatedAt()
+        );
+    }
+}
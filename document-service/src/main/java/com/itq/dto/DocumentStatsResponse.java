@@ -0,0 +1,12 @@
+package com.itq.dto;
+
+import com.itq.entity.enums.DocumentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Количество документов по статусам")
+public record DocumentStatsResponse(
+    @Schema(description = "Статус → количество документов") Map<DocumentStatus, Long> counts,
+    @Schema(description = "Всего документов") long total
+) {}
@@ -1,8 +1,13 @@
 package com.itq.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
 import java.util.List;
 
 public record DocumentWithHistoryResponse(
     DocumentResponse document,
-    List<HistoryResponse> history
+    List<HistoryResponse> history,
+    @Schema(description = "Есть более старые записи истории: передайте значение в historyBefore, чтобы получить их")
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long historyNextCursor
 ) {}
@@ -0,0 +1,13 @@
+package com.itq.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Состояние пула потоков")
+public record ExecutorStatsResponse(
+    @Schema(description = "Максимум потоков") int maxPoolSize,
+    @Schema(description = "Потоков сейчас") int poolSize,
+    @Schema(description = "Выполняемых задач") int activeCount,
+    @Schema(description = "Задач в очереди") int queueSize,
+    @Schema(description = "Свободных мест в очереди") int queueRemainingCapacity,
+    @Schema(description = "Завершённых задач с запуска") long completedTaskCount
+) {}
@@ -10,4 +10,5 @@ public record HistoryResponse(
     @Schema(description = "Кто выполнил") String initiator,
     @Schema(description = "Комментарий") String comment,
     @Schema(description = "Когда") LocalDateTime createdAt
-) {}
+) {
+}
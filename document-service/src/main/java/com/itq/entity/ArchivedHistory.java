@@ -0,0 +1,41 @@
+package com.itq.entity;
+
+import com.itq.entity.enums.DocumentAction;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись истории, перенесённая из {@code history} архивацией холодных месяцев
+ * ({@link com.itq.service.HistoryArchiveService}). id и поля те же, что у исходной {@link History};
+ * читается вместе с горячей историей в {@code DocumentHistoryRepository}.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "history_archive",
+       indexes = @Index(name = "idx_history_archive_document_created_at", columnList = "document_id, created_at, id"))
+public class ArchivedHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DocumentAction action;
+
+    @Column(name = "initiator", nullable = false)
+    private String initiator;
+
+    @Column(name = "comment")
+    private String comment;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
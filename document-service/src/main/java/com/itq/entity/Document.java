@@ -14,6 +14,7 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.*;
 
@@ -30,7 +31,8 @@ import java.util.UUID;
 public class Document {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_seq")
+    @SequenceGenerator(name = "document_seq", sequenceName = "document_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "unique_number", nullable = false, unique = true)
@@ -58,6 +60,14 @@ public class Document {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** Узел, взявший документ в обработку воркером (аренда). */
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    /** До какого момента действует аренда; после истечения документ может взять другой узел. */
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
     @PrePersist
     protected void onCreate() {
         if (uniqueNumber == null) {
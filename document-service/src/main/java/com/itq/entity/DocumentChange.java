@@ -0,0 +1,45 @@
+package com.itq.entity;
+
+import com.itq.entity.enums.DocumentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox-ленты изменений: смена статуса документа. {@code position} пуст до публикации
+ * ({@link com.itq.service.ChangeFeedService#publishPending}), после неё задаёт порядок ленты.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "document_change", indexes = @Index(name = "idx_document_change_position", columnList = "position", unique = true))
+public class DocumentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_change_seq")
+    @SequenceGenerator(name = "document_change_seq", sequenceName = "document_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", nullable = false, length = 20)
+    private DocumentStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20)
+    private DocumentStatus toStatus;
+
+    @Column(name = "initiator", nullable = false)
+    private String initiator;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "position")
+    private Long position;
+}
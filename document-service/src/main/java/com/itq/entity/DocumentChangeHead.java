@@ -0,0 +1,25 @@
+package com.itq.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Последняя выданная позиция ленты изменений (одна строка). Публикатор блокирует её на время присвоения позиций,
+ * поэтому позиции выдаются подряд и в порядке коммита публикаций.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "document_change_head")
+public class DocumentChangeHead {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "position", nullable = false)
+    private long position;
+}
@@ -0,0 +1,23 @@
+package com.itq.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Одна полоса (stripe) счётчика документов в статусе. Итог по статусу — сумма по всем полосам;
+ * полосы разносят конкурирующие транзакции по разным строкам.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Table(name = "document_status_counter")
+public class DocumentStatusCounter {
+
+    @EmbeddedId
+    private DocumentStatusCounterId id;
+
+    @Column(name = "cnt", nullable = false)
+    private long count;
+}
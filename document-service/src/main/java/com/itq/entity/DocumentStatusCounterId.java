@@ -0,0 +1,26 @@
+package com.itq.entity;
+
+import com.itq.entity.enums.DocumentStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class DocumentStatusCounterId implements Serializable {
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private DocumentStatus status;
+
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+}
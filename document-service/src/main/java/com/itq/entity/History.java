@@ -11,11 +11,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "history", indexes = @Index(name="ix_hist_doc_time", columnList="document_id, created_at"))
+@Table(name = "history", indexes = @Index(name = "idx_history_document_created_at", columnList = "document_id, created_at, id"))
 public class History {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "history_seq")
+    @SequenceGenerator(name = "history_seq", sequenceName = "history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,7 +33,8 @@ public class History {
     @Column(name = "comment")
     private String comment;
 
-    @Column(name = "created_at")
+    /** Ключ месячных секций {@code history}. */
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @PrePersist
@@ -0,0 +1,7 @@
+package com.itq.exception;
+
+public class ChangeCursorExpiredException extends RuntimeException {
+    public ChangeCursorExpiredException(long after) {
+        super("Changes after position " + after + " were pruned by retention; re-sync and continue from the current head");
+    }
+}
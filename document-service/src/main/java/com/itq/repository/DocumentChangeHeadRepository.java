@@ -0,0 +1,22 @@
+package com.itq.repository;
+
+import com.itq.entity.DocumentChangeHead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface DocumentChangeHeadRepository extends JpaRepository<DocumentChangeHead, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from DocumentChangeHead h where h.id = :id")
+    Optional<DocumentChangeHead> findByIdForUpdate(@Param("id") Integer id);
+
+    @Query("select h.position from DocumentChangeHead h where h.id = :id")
+    Optional<Long> findPosition(@Param("id") Integer id);
+}
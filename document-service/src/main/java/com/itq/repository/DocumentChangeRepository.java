@@ -0,0 +1,32 @@
+package com.itq.repository;
+
+import com.itq.entity.DocumentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DocumentChangeRepository extends JpaRepository<DocumentChange, Long> {
+
+    boolean existsByPositionIsNull();
+
+    @Query("select c from DocumentChange c where c.position is null order by c.id")
+    List<DocumentChange> findUnpublished(Pageable pageable);
+
+    @Query("select c from DocumentChange c where c.position > :after order by c.position")
+    List<DocumentChange> findPublishedAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("select c.id from DocumentChange c where c.position is not null and c.createdAt < :cutoff order by c.id")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("delete from DocumentChange c where c.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
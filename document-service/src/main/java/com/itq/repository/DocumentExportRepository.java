@@ -0,0 +1,17 @@
+package com.itq.repository;
+
+import com.itq.dto.DocumentResponse;
+import com.itq.entity.Document;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Потоковое чтение документов для выгрузки. Читаются только колонки ответа — строки сразу собираются в {@link DocumentResponse}
+ * (без сущностей в persistence context) и читаются курсором JDBC порциями по {@code fetchSize}.
+ */
+public interface DocumentExportRepository {
+
+    /** Стрим нужно закрыть; вызывать внутри транзакции — иначе PostgreSQL не читает курсором. */
+    Stream<DocumentResponse> streamResponses(Specification<Document> spec, int fetchSize);
+}
@@ -0,0 +1,37 @@
+package com.itq.repository;
+
+import com.itq.dto.DocumentResponse;
+import com.itq.entity.Document;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+class DocumentExportRepositoryImpl implements DocumentExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<DocumentResponse> streamResponses(Specification<Document> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Document> root = query.from(Document.class);
+        query.multiselect(DocumentResponseRepositoryImpl.responseColumns(root));
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()
+            .map(DocumentResponseRepositoryImpl::toResponse);
+    }
+}
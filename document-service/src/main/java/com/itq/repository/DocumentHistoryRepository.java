@@ -0,0 +1,28 @@
+package com.itq.repository;
+
+import com.itq.dto.DocumentWithHistoryResponse;
+import com.itq.dto.HistoryResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Чтение документа вместе с историей одним запросом: колонки документа и истории через left join,
+ * без сущностей в persistence context. Порядок записей — по (created_at, id), индекс idx_history_document_created_at.
+ * Перенесённые в {@code history_archive} записи старше горячих и добавляются вторым запросом,
+ * только когда горячей истории не хватает на ответ.
+ */
+public interface DocumentHistoryRepository {
+
+    /**
+     * @param limit  не больше {@code limit} последних записей истории; null — вся история
+     * @param before курсор: только записи старше записи истории с этим id (historyNextCursor предыдущего ответа)
+     * @return пусто, если документа нет
+     */
+    Optional<DocumentWithHistoryResponse> findWithHistory(Long id, Integer limit, Long before);
+
+    /** История всех документов из {@code documentIds} одним запросом; документы без истории в карту не попадают. */
+    Map<Long, List<HistoryResponse>> findHistories(Collection<Long> documentIds);
+}
@@ -0,0 +1,176 @@
+package com.itq.repository;
+
+import com.itq.dto.DocumentResponse;
+import com.itq.dto.DocumentWithHistoryResponse;
+import com.itq.dto.HistoryResponse;
+import com.itq.entity.ArchivedHistory;
+import com.itq.entity.Document;
+import com.itq.entity.History;
+import com.itq.entity.enums.DocumentAction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class DocumentHistoryRepositoryImpl implements DocumentHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<DocumentWithHistoryResponse> findWithHistory(Long id, Integer limit, Long before) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Document> root = query.from(Document.class);
+        Join<Document, History> history = root.join("history", JoinType.LEFT);
+        if (before != null) {
+            // Условие курсора — в ON, а не в WHERE: документ без более старых записей всё равно вернётся одной строкой
+            Subquery<LocalDateTime> cursorCreatedAt = query.subquery(LocalDateTime.class);
+            Root<History> cursor = cursorCreatedAt.from(History.class);
+            cursorCreatedAt.select(cursor.get("createdAt")).where(cb.equal(cursor.get("id"), before));
+            Path<LocalDateTime> createdAt = history.get("createdAt");
+            history.on(cb.or(
+                cb.lessThan(createdAt, cursorCreatedAt),
+                cb.and(cb.equal(createdAt, cursorCreatedAt), cb.lessThan(history.get("id"), before))));
+        }
+        query.multiselect(root.get("id"), root.get("uniqueNumber"), root.get("author"), root.get("title"),
+            root.get("status"), root.get("createdAt"), root.get("updatedAt"),
+            history.get("id"), history.get("action"), history.get("initiator"), history.get("comment"),
+            history.get("createdAt"));
+        query.where(cb.equal(root.get("id"), id));
+        // С лимитом нужны последние записи: читаем с конца индекса и разворачиваем
+        query.orderBy(limit != null
+            ? List.of(cb.desc(history.get("createdAt")), cb.desc(history.get("id")))
+            : List.of(cb.asc(history.get("createdAt")), cb.asc(history.get("id"))));
+        TypedQuery<Object[]> typed = entityManager.createQuery(query).setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (limit != null) {
+            typed.setMaxResults(limit + 1);
+        }
+        List<Object[]> rows = typed.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        DocumentResponse document = DocumentResponseRepositoryImpl.toResponse(rows.get(0));
+        // записи истории в порядке запроса: id, action, initiator, comment, createdAt
+        List<Object[]> records = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (row[7] != null) {
+                records.add(Arrays.copyOfRange(row, 7, 12));
+            }
+        }
+        // Архив целиком старше горячей истории: читаем его, только если горячих записей не хватило на страницу
+        if (limit == null) {
+            List<Object[]> archived = findArchived(id, null, before);
+            archived.addAll(records);
+            records = archived;
+        } else if (records.size() <= limit) {
+            records.addAll(findArchived(id, limit + 1 - records.size(), before));
+        }
+        boolean hasMore = limit != null && records.size() > limit;
+        List<Object[]> page = hasMore ? records.subList(0, limit) : records;
+        List<HistoryResponse> entries = new ArrayList<>(page.size());
+        for (Object[] record : page) {
+            entries.add(toHistoryResponse(record, 1));
+        }
+        if (limit != null) {
+            Collections.reverse(entries);
+        }
+        Long nextCursor = hasMore ? (Long) page.get(page.size() - 1)[0] : null;
+        return Optional.of(new DocumentWithHistoryResponse(document, entries, nextCursor));
+    }
+
+    @Override
+    public Map<Long, List<HistoryResponse>> findHistories(Collection<Long> documentIds) {
+        if (documentIds.isEmpty()) {
+            return Map.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Map<Long, List<HistoryResponse>> result = new LinkedHashMap<>();
+        // сначала архив: он старше горячей истории любого документа
+        CriteriaQuery<Object[]> archiveQuery = cb.createQuery(Object[].class);
+        Root<ArchivedHistory> archived = archiveQuery.from(ArchivedHistory.class);
+        Path<Long> archivedDocumentId = archived.get("documentId");
+        archiveQuery.multiselect(archivedDocumentId, archived.get("action"), archived.get("initiator"),
+            archived.get("comment"), archived.get("createdAt"));
+        archiveQuery.where(archivedDocumentId.in(documentIds));
+        archiveQuery.orderBy(cb.asc(archivedDocumentId), cb.asc(archived.get("createdAt")), cb.asc(archived.get("id")));
+        for (Object[] row : entityManager.createQuery(archiveQuery).setHint(HibernateHints.HINT_READ_ONLY, true).getResultList()) {
+            result.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add(toHistoryResponse(row, 1));
+        }
+
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<History> root = query.from(History.class);
+        Path<Long> documentId = root.get("document").get("id");
+        query.multiselect(documentId, root.get("action"), root.get("initiator"), root.get("comment"),
+            root.get("createdAt"));
+        query.where(documentId.in(documentIds));
+        query.orderBy(cb.asc(documentId), cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+        for (Object[] row : entityManager.createQuery(query).setHint(HibernateHints.HINT_READ_ONLY, true).getResultList()) {
+            result.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add(toHistoryResponse(row, 1));
+        }
+        return result;
+    }
+
+    /**
+     * Архивные записи документа: с {@code max} — последние, по убыванию, иначе все по возрастанию.
+     * Курсор из архива ограничивает записи более старыми; курсор из горячей истории старше любой архивной записи,
+     * поэтому подходит весь архив. Несуществующий курсор не возвращает ничего, как и для горячей истории.
+     */
+    private List<Object[]> findArchived(Long documentId, Integer max, Long before) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<ArchivedHistory> root = query.from(ArchivedHistory.class);
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Predicate where = cb.equal(root.get("documentId"), documentId);
+        if (before != null) {
+            Subquery<LocalDateTime> cursorCreatedAt = query.subquery(LocalDateTime.class);
+            Root<ArchivedHistory> cursor = cursorCreatedAt.from(ArchivedHistory.class);
+            cursorCreatedAt.select(cursor.get("createdAt")).where(cb.equal(cursor.get("id"), before));
+            Subquery<Long> hotCursor = query.subquery(Long.class);
+            Root<History> hot = hotCursor.from(History.class);
+            hotCursor.select(hot.get("id")).where(cb.equal(hot.get("id"), before));
+            where = cb.and(where, cb.or(
+                cb.exists(hotCursor),
+                cb.lessThan(createdAt, cursorCreatedAt),
+                cb.and(cb.equal(createdAt, cursorCreatedAt), cb.lessThan(root.get("id"), before))));
+        }
+        query.multiselect(root.get("id"), root.get("action"), root.get("initiator"), root.get("comment"), createdAt);
+        query.where(where);
+        query.orderBy(max != null
+            ? List.of(cb.desc(createdAt), cb.desc(root.get("id")))
+            : List.of(cb.asc(createdAt), cb.asc(root.get("id"))));
+        TypedQuery<Object[]> typed = entityManager.createQuery(query).setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (max != null) {
+            typed.setMaxResults(max);
+        }
+        return new ArrayList<>(typed.getResultList());
+    }
+
+    private static HistoryResponse toHistoryResponse(Object[] row, int offset) {
+        return new HistoryResponse(
+            ((DocumentAction) row[offset]).name(),
+            (String) row[offset + 1],
+            row[offset + 2] != null ? (String) row[offset + 2] : "",
+            (LocalDateTime) row[offset + 3]
+        );
+    }
+}
@@ -2,43 +2,64 @@ package com.itq.repository;
 
 import com.itq.entity.Document;
 import com.itq.entity.enums.DocumentStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSpecificationExecutor<Document>,
+        DocumentExportRepository, DocumentHistoryRepository, DocumentResponseRepository {
 
-    List<Document> findByIdIn(List<Long> ids);
-
-    long countByStatus(DocumentStatus status);
-
-    @Query("""
-        select d from Document d where
-        (:status is null or d.status = :status) and
-        (:author is null or d.author = :author) and
-        (:fromDate is null or d.createdAt >= :fromDate) and
-        (:toDate is null or d.createdAt <= :toDate)
-        """)
-    Page<Document> search(
-        @Param("status") DocumentStatus status,
-        @Param("author") String author,
-        @Param("fromDate") LocalDateTime fromDate,
-        @Param("toDate") LocalDateTime toDate,
-        Pageable pageable
+    @Query(value = """
+        select id from document
+        where status = :status and (claimed_until is null or claimed_until < :now)
+        order by id
+        fetch first :limit rows only
+        for update skip locked
+        """, nativeQuery = true)
+    List<Long> findClaimableIds(
+        @Param("status") String status,
+        @Param("now") LocalDateTime now,
+        @Param("limit") int limit
     );
 
-    List<Document> findByStatusOrderByIdAsc(DocumentStatus status, Pageable pageable);
+    @Modifying
+    @Query("update Document d set d.claimedBy = :owner, d.claimedUntil = :until where d.id in :ids")
+    int claim(
+        @Param("ids") Collection<Long> ids,
+        @Param("owner") String owner,
+        @Param("until") LocalDateTime until
+    );
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select d from Document d where d.id = :id")
     java.util.Optional<Document> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select d.status from Document d where d.id = :id")
+    java.util.Optional<DocumentStatus> findStatusById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d.id as id, d.status as status from Document d where d.id in :ids order by d.id")
+    List<DocumentStatusView> findStatusesForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Document d set d.status = :target, d.updatedAt = :updatedAt, d.claimedBy = null, d.claimedUntil = null
+        where d.id in :ids and d.status = :expected
+        """)
+    int updateStatus(
+        @Param("ids") Collection<Long> ids,
+        @Param("expected") DocumentStatus expected,
+        @Param("target") DocumentStatus target,
+        @Param("updatedAt") LocalDateTime updatedAt
+    );
 }
@@ -0,0 +1,29 @@
+package com.itq.repository;
+
+import com.itq.dto.DocumentResponse;
+import com.itq.entity.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Списочные чтения сразу в {@link DocumentResponse}: запрос выбирает только колонки ответа, сущности не создаются,
+ * не попадают в persistence context и не проверяются на изменения при flush. Транзакции только на чтение,
+ * запросы с read-only и fetch-size хинтами Hibernate.
+ */
+public interface DocumentResponseRepository {
+
+    /** Страница по спецификации; count выполняется, только если размер выборки не ясен из самой страницы. */
+    @Transactional(readOnly = true)
+    Page<DocumentResponse> findResponses(Specification<Document> spec, Pageable pageable);
+
+    /**
+     * Документы по массиву id в произвольном порядке. Массив — один параметр {@code id = any(?)}, поэтому текст запроса
+     * не зависит от числа id и PostgreSQL переиспользует подготовленный план.
+     */
+    @Transactional(readOnly = true)
+    List<DocumentResponse> findResponsesByIds(Long[] ids);
+}
@@ -0,0 +1,114 @@
+package com.itq.repository;
+
+import com.itq.dto.DocumentResponse;
+import com.itq.entity.Document;
+import com.itq.entity.enums.DocumentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+class DocumentResponseRepositoryImpl implements DocumentResponseRepository {
+
+    private static final String BY_IDS_SQL = """
+        select id, unique_number, author, title, status, created_at, updated_at
+        from document
+        where id = any(:ids)
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<DocumentResponse> findResponses(Specification<Document> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Document> root = query.from(Document.class);
+        query.multiselect(responseColumns(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        TypedQuery<Object[]> typed = entityManager.createQuery(query).setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, pageable.getPageSize());
+        }
+        List<DocumentResponse> content = typed.getResultList().stream()
+            .map(DocumentResponseRepositoryImpl::toResponse)
+            .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DocumentResponse> findResponsesByIds(Long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(BY_IDS_SQL)
+            .setParameter("ids", ids)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, ids.length)
+            .unwrap(NativeQuery.class)
+            .addScalar("id", Long.class)
+            .addScalar("unique_number", UUID.class)
+            .addScalar("author", String.class)
+            .addScalar("title", String.class)
+            .addScalar("status", String.class)
+            .addScalar("created_at", LocalDateTime.class)
+            .addScalar("updated_at", LocalDateTime.class)
+            .getResultList();
+        return rows.stream().map(row -> {
+            row[4] = DocumentStatus.valueOf((String) row[4]);
+            return toResponse(row);
+        }).toList();
+    }
+
+    private long count(Specification<Document> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Document> root = query.from(Document.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /** Колонки {@link DocumentResponse} в порядке, который ожидает {@link #toResponse}. */
+    static List<Selection<?>> responseColumns(Root<Document> root) {
+        return List.of(root.get("id"), root.get("uniqueNumber"), root.get("author"), root.get("title"),
+            root.get("status"), root.get("createdAt"), root.get("updatedAt"));
+    }
+
+    /** Первые семь колонок строки — {@link #responseColumns}. */
+    static DocumentResponse toResponse(Object[] row) {
+        return new DocumentResponse(
+            (Long) row[0],
+            row[1] != null ? row[1].toString() : null,
+            (String) row[2],
+            (String) row[3],
+            (DocumentStatus) row[4],
+            (LocalDateTime) row[5],
+            (LocalDateTime) row[6]
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.itq.repository;
+
+import com.itq.entity.Document;
+import com.itq.entity.enums.DocumentStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Условия поиска документов. В запрос попадают только заданные фильтры —
+ * без конструкций {@code :x is null or ...}, которые мешают планировщику выбрать индекс.
+ */
+public final class DocumentSpecifications {
+
+    /**
+     * Поля, по которым разрешена сортировка: у каждого есть индекс, ведущий или вторым столбцом
+     * после фильтра ({@code (created_at, id)}, {@code (status, created_at)}, {@code (author, created_at)}, PK).
+     */
+    public static final Set<String> SORT_FIELDS = Set.of("createdAt", "id");
+
+    private DocumentSpecifications() {
+    }
+
+    public static Specification<Document> matches(DocumentStatus status, String author,
+                                                  LocalDateTime fromDate, LocalDateTime toDate) {
+        Specification<Document> spec = Specification.unrestricted();
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (author != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("author"), author));
+        }
+        if (fromDate != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), fromDate));
+        }
+        if (toDate != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), toDate));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,50 @@
+package com.itq.repository;
+
+import com.itq.entity.DocumentStatusCounter;
+import com.itq.entity.DocumentStatusCounterId;
+import com.itq.entity.enums.DocumentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.util.List;
+
+@Repository
+public interface DocumentStatusCounterRepository extends JpaRepository<DocumentStatusCounter, DocumentStatusCounterId> {
+
+    @Modifying
+    @Query("""
+        update DocumentStatusCounter c set c.count = c.count + :delta
+        where c.id.status = :status and c.id.stripe = :stripe
+        """)
+    int add(
+        @Param("status") DocumentStatus status,
+        @Param("stripe") int stripe,
+        @Param("delta") long delta
+    );
+
+    @Query("select c.id.status as status, sum(c.count) as count from DocumentStatusCounter c group by c.id.status")
+    List<StatusCountView> totals();
+
+    /**
+     * Число документов и сумма счётчика по статусам одним запросом, то есть в одном снимке: смена статуса,
+     * ещё не закоммиченная, не видна ни в одной из сумм, закоммиченная — видна в обеих.
+     */
+    @Query(nativeQuery = true, value = """
+        select status, sum(actual) as actual, sum(counted) as counted from (
+            select status, count(*) as actual, 0 as counted from document group by status
+            union all
+            select status, 0 as actual, sum(cnt) as counted from document_status_counter group by status
+        ) t group by status
+        """)
+    List<StatusDriftView> countsWithActual();
+
+    /** Полосы одного статуса под блокировкой, по возрастанию stripe. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from DocumentStatusCounter c where c.id.status = :status order by c.id.stripe")
+    List<DocumentStatusCounter> findByStatusForUpdate(@Param("status") DocumentStatus status);
+}
@@ -0,0 +1,9 @@
+package com.itq.repository;
+
+import com.itq.entity.enums.DocumentStatus;
+
+public interface DocumentStatusView {
+    Long getId();
+
+    DocumentStatus getStatus();
+}
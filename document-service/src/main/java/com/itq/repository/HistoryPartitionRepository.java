@@ -0,0 +1,26 @@
+package com.itq.repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Месячные секции {@code history} (PostgreSQL, changeset 010) и перенос холодной истории в {@code history_archive}.
+ * Секция месяца называется {@code history_yYYYYmMM}. Методы, меняющие данные, вызываются в транзакции.
+ */
+public interface HistoryPartitionRepository {
+
+    /** {@code history} секционирована; иначе (H2 в тестах) секций нет и архивация идёт построчно. */
+    boolean isPartitioned();
+
+    /** Месяцы, для которых есть секции, по возрастанию. */
+    List<YearMonth> findPartitionMonths();
+
+    void createPartition(YearMonth month);
+
+    /** Копирует секцию месяца в архив и удаляет её. @return перенесено строк */
+    long archivePartition(YearMonth month);
+
+    /** Переносит в архив строки старше {@code cutoff}, оставшиеся вне месячных секций. @return перенесено строк */
+    long archiveBefore(LocalDateTime cutoff);
+}
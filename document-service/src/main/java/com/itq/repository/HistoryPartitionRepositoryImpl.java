@@ -0,0 +1,84 @@
+package com.itq.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class HistoryPartitionRepositoryImpl implements HistoryPartitionRepository {
+
+    private static final Pattern PARTITION = Pattern.compile("history_y(\\d{4})m(\\d{2})");
+    private static final String COLUMNS = "id, document_id, action, initiator, comment, created_at";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public boolean isPartitioned() {
+        String product = entityManager.unwrap(Session.class)
+            .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return false;
+        }
+        Number count = (Number) entityManager.createNativeQuery(
+                "select count(*) from pg_partitioned_table where partrelid = to_regclass('history')")
+            .getSingleResult();
+        return count.longValue() > 0;
+    }
+
+    @Override
+    public List<YearMonth> findPartitionMonths() {
+        List<?> names = entityManager.createNativeQuery("""
+                select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = to_regclass('history')
+                """)
+            .getResultList();
+        return names.stream()
+            .map(name -> PARTITION.matcher(name.toString()))
+            .filter(Matcher::matches)
+            .map(m -> YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))))
+            .sorted()
+            .toList();
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        // имя и границы строятся из YearMonth, не из пользовательского ввода
+        entityManager.createNativeQuery("create table if not exists " + partitionName(month)
+                + " partition of history for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')")
+            .executeUpdate();
+    }
+
+    @Override
+    public long archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        int moved = entityManager.createNativeQuery(
+                "insert into history_archive (" + COLUMNS + ") select " + COLUMNS + " from " + partition)
+            .executeUpdate();
+        entityManager.createNativeQuery("drop table " + partition).executeUpdate();
+        return moved;
+    }
+
+    @Override
+    public long archiveBefore(LocalDateTime cutoff) {
+        int moved = entityManager.createNativeQuery(
+                "insert into history_archive (" + COLUMNS + ") select " + COLUMNS + " from history where created_at < ?1")
+            .setParameter(1, cutoff)
+            .executeUpdate();
+        if (moved > 0) {
+            entityManager.createNativeQuery("delete from history where created_at < ?1")
+                .setParameter(1, cutoff)
+                .executeUpdate();
+        }
+        return moved;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "history_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+    }
+}
@@ -4,9 +4,10 @@ import com.itq.entity.History;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
+/**
+ * Запись истории и обслуживание её секций. Чтение истории документа (горячей и архивной вместе) —
+ * {@link DocumentHistoryRepository}.
+ */
 @Repository
-public interface HistoryRepository extends JpaRepository<History, Long> {
-    List<History> findByDocumentIdOrderByCreatedAtAsc(Long documentId);
+public interface HistoryRepository extends JpaRepository<History, Long>, HistoryPartitionRepository {
 }
@@ -0,0 +1,9 @@
+package com.itq.repository;
+
+import com.itq.entity.enums.DocumentStatus;
+
+public interface StatusCountView {
+    DocumentStatus getStatus();
+
+    long getCount();
+}
@@ -0,0 +1,13 @@
+package com.itq.repository;
+
+import com.itq.entity.enums.DocumentStatus;
+
+public interface StatusDriftView {
+    DocumentStatus getStatus();
+
+    /** Документов в статусе по {@code document}. */
+    long getActual();
+
+    /** Сумма полос счётчика. */
+    long getCounted();
+}
@@ -8,12 +8,14 @@ import org.springframework.stereotype.Component;
 public class ApprovalRegistryWriter {
 
     private final ApprovalRegistryRepository repository;
+    private final DocumentMetrics metrics;
 
-    public ApprovalRegistryWriter(ApprovalRegistryRepository repository) {
+    public ApprovalRegistryWriter(ApprovalRegistryRepository repository, DocumentMetrics metrics) {
         this.repository = repository;
+        this.metrics = metrics;
     }
 
     public void write(ApprovalRegistry registry) {
-        repository.save(registry);
+        metrics.recordRegistryWrite(() -> repository.save(registry));
     }
 }
@@ -1,5 +1,6 @@
 package com.itq.service;
 
+import com.itq.config.ApproveProperties;
 import com.itq.entity.ApprovalRegistry;
 import com.itq.entity.Document;
 import com.itq.entity.History;
@@ -14,32 +15,44 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Component
 public class ApproveOneExecutor {
 
     private final DocumentRepository documentRepository;
     private final HistoryRepository historyRepository;
     private final ApprovalRegistryWriter approvalRegistryWriter;
+    private final StatusCounterService statusCounterService;
+    private final DocumentCache documentCache;
+    private final DocumentMetrics metrics;
+    private final ChangeFeedService changeFeedService;
+    private final ApproveProperties approveProperties;
 
     public ApproveOneExecutor(DocumentRepository documentRepository,
                               HistoryRepository historyRepository,
-                              ApprovalRegistryWriter approvalRegistryWriter) {
+                              ApprovalRegistryWriter approvalRegistryWriter,
+                              StatusCounterService statusCounterService,
+                              DocumentCache documentCache,
+                              DocumentMetrics metrics,
+                              ApproveProperties approveProperties,
+                              ChangeFeedService changeFeedService) {
         this.documentRepository = documentRepository;
         this.historyRepository = historyRepository;
         this.approvalRegistryWriter = approvalRegistryWriter;
+        this.statusCounterService = statusCounterService;
+        this.documentCache = documentCache;
+        this.metrics = metrics;
+        this.changeFeedService = changeFeedService;
+        this.approveProperties = approveProperties;
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void execute(Long id, String initiator, String comment) {
-        Document doc = documentRepository.findByIdForUpdate(id)
-            .orElseThrow(() -> new DocumentNotFoundException(id));
-
-        if (doc.getStatus() != DocumentStatus.SUBMITTED) {
-            throw new ValidationException("Document must be in SUBMITTED status to approve. Current: " + doc.getStatus());
-        }
-
-        doc.setStatus(DocumentStatus.APPROVED);
-        documentRepository.save(doc);
+        Document doc = approveProperties.getLockMode() == ApproveProperties.LockMode.OPTIMISTIC
+            ? compareAndSetApproved(id)
+            : lockAndSetApproved(id);
 
         History history = new History();
         history.setDocument(doc);
@@ -56,5 +69,49 @@ public class ApproveOneExecutor {
         } catch (Exception e) {
             throw new RegistryException("Failed to register approval", e);
         }
+        statusCounterService.transition(DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, 1);
+        changeFeedService.record(List.of(id), DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, initiator);
+        documentCache.evictAfterCommit(List.of(id));
+    }
+
+    private Document lockAndSetApproved(Long id) {
+        Document doc = metrics.recordLockWait(DocumentMetrics.APPROVE, "single",
+                () -> documentRepository.findByIdForUpdate(id))
+            .orElseThrow(() -> new DocumentNotFoundException(id));
+
+        if (doc.getStatus() != DocumentStatus.SUBMITTED) {
+            throw notSubmitted(doc.getStatus());
+        }
+
+        doc.setStatus(DocumentStatus.APPROVED);
+        doc.setClaimedBy(null);
+        doc.setClaimedUntil(null);
+        return documentRepository.save(doc);
+    }
+
+    /**
+     * Утверждение без {@code select ... for update}: статус проверяется чтением без блокировки, затем меняется
+     * условным UPDATE. Из одновременных UPDATE одного документа строку меняет только первый, остальные после
+     * его коммита не проходят условие {@code status = 'SUBMITTED'} и получают CONFLICT, ничего не заблокировав.
+     */
+    private Document compareAndSetApproved(Long id) {
+        DocumentStatus status = documentRepository.findStatusById(id)
+            .orElseThrow(() -> new DocumentNotFoundException(id));
+        if (status != DocumentStatus.SUBMITTED) {
+            throw notSubmitted(status);
+        }
+
+        int updated = metrics.recordLockWait(DocumentMetrics.APPROVE, "conditional_update",
+            () -> documentRepository.updateStatus(List.of(id), DocumentStatus.SUBMITTED, DocumentStatus.APPROVED,
+                LocalDateTime.now()));
+        if (updated == 0) {
+            throw notSubmitted(documentRepository.findStatusById(id)
+                .orElseThrow(() -> new DocumentNotFoundException(id)));
+        }
+        return documentRepository.getReferenceById(id);
+    }
+
+    private static ValidationException notSubmitted(DocumentStatus current) {
+        return new ValidationException("Document must be in SUBMITTED status to approve. Current: " + current);
     }
 }
@@ -0,0 +1,136 @@
+package com.itq.service;
+
+import com.itq.dto.ItemResult;
+import com.itq.entity.ApprovalRegistry;
+import com.itq.entity.Document;
+import com.itq.entity.History;
+import com.itq.entity.enums.DocumentAction;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.exception.RegistryException;
+import com.itq.repository.DocumentRepository;
+import com.itq.repository.DocumentStatusView;
+import com.itq.repository.HistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Утверждает пачку документов одной транзакцией: одна блокировка на всю пачку,
+ * set-based UPDATE статуса и батчевые вставки истории и реестра.
+ * Документы, для которых не удалось записать реестр, не утверждаются и
+ * возвращаются вызывающему для обработки по-документному пути ({@link ApproveOneExecutor}).
+ */
+@Component
+public class BulkApproveExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkApproveExecutor.class);
+
+    private final DocumentRepository documentRepository;
+    private final HistoryRepository historyRepository;
+    private final ApprovalRegistryWriter approvalRegistryWriter;
+    private final StatusCounterService statusCounterService;
+    private final DocumentCache documentCache;
+    private final DocumentMetrics metrics;
+    private final ChangeFeedService changeFeedService;
+
+    public BulkApproveExecutor(DocumentRepository documentRepository,
+                               HistoryRepository historyRepository,
+                               ApprovalRegistryWriter approvalRegistryWriter,
+                               StatusCounterService statusCounterService,
+                               DocumentCache documentCache,
+                               DocumentMetrics metrics,
+                               ChangeFeedService changeFeedService) {
+        this.documentRepository = documentRepository;
+        this.historyRepository = historyRepository;
+        this.approvalRegistryWriter = approvalRegistryWriter;
+        this.statusCounterService = statusCounterService;
+        this.documentCache = documentCache;
+        this.metrics = metrics;
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * @param ids уникальные id пачки
+     * @return результаты по обработанным id и список id с ошибкой записи в реестр
+     * @throws RegistryException если транзакция пачки помечена на откат — пачку целиком нужно повторить по-документно
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public ChunkResult execute(Collection<Long> ids, String initiator, String comment) {
+        Map<Long, DocumentStatus> statuses = metrics.recordLockWait(DocumentMetrics.APPROVE, "batch",
+                () -> documentRepository.findStatusesForUpdate(ids)).stream()
+            .collect(Collectors.toMap(DocumentStatusView::getId, DocumentStatusView::getStatus));
+
+        Map<Long, ItemResult> results = new HashMap<>();
+        List<Long> registryFailures = new ArrayList<>();
+        List<Long> approved = new ArrayList<>();
+        for (Long id : ids) {
+            DocumentStatus status = statuses.get(id);
+            if (status == null) {
+                results.put(id, new ItemResult(id, StatusChangeResultType.NOT_FOUND, "Document not found"));
+            } else if (status != DocumentStatus.SUBMITTED) {
+                results.put(id, new ItemResult(id, StatusChangeResultType.CONFLICT,
+                    "Document must be in SUBMITTED status to approve. Current: " + status));
+            } else if (writeRegistry(id, initiator)) {
+                approved.add(id);
+                results.put(id, new ItemResult(id, StatusChangeResultType.SUCCESS, "Approved"));
+            } else {
+                registryFailures.add(id);
+            }
+        }
+
+        if (TransactionAspectSupport.currentTransactionStatus().isRollbackOnly()) {
+            throw new RegistryException("Approval chunk marked rollback-only by registry write");
+        }
+        if (!approved.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            int updated = documentRepository.updateStatus(approved, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, now);
+            if (updated != approved.size()) {
+                throw new IllegalStateException("Bulk approve touched " + updated + " of " + approved.size() + " locked documents");
+            }
+            historyRepository.saveAll(approved.stream()
+                .map(id -> newHistory(documentRepository.getReferenceById(id), initiator, comment))
+                .toList());
+            statusCounterService.transition(DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, approved.size());
+            changeFeedService.record(approved, DocumentStatus.SUBMITTED, DocumentStatus.APPROVED, initiator);
+            documentCache.evictAfterCommit(approved);
+        }
+        return new ChunkResult(results, registryFailures);
+    }
+
+    private boolean writeRegistry(Long id, String initiator) {
+        ApprovalRegistry registry = new ApprovalRegistry();
+        registry.setDocument(documentRepository.getReferenceById(id));
+        registry.setApprovedBy(initiator);
+        try {
+            approvalRegistryWriter.write(registry);
+            return true;
+        } catch (Exception e) {
+            log.warn("Registry write failed for document {}, retrying it on its own", id, e);
+            return false;
+        }
+    }
+
+    private History newHistory(Document doc, String initiator, String comment) {
+        History history = new History();
+        history.setDocument(doc);
+        history.setAction(DocumentAction.APPROVE);
+        history.setInitiator(initiator);
+        history.setComment(comment);
+        return history;
+    }
+
+    public record ChunkResult(Map<Long, ItemResult> results, List<Long> registryFailures) {
+    }
+}
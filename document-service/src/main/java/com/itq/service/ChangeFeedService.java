@@ -0,0 +1,282 @@
+package com.itq.service;
+
+import com.itq.config.ChangeFeedProperties;
+import com.itq.config.ReplicaRoutingDataSource;
+import com.itq.dto.ChangeFeedResponse;
+import com.itq.dto.DocumentChangeResponse;
+import com.itq.entity.DocumentChange;
+import com.itq.entity.DocumentChangeHead;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.exception.ChangeCursorExpiredException;
+import com.itq.exception.ValidationException;
+import com.itq.repository.DocumentChangeHeadRepository;
+import com.itq.repository.DocumentChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Лента изменений статусов (transactional outbox).
+ * <ul>
+ *   <li>{@link #record} пишет записи в той же транзакции, что и смена статуса, без позиции.</li>
+ *   <li>{@link #publishPending} присваивает закоммиченным записям позиции подряд под блокировкой
+ *       {@code document_change_head}; запускается сразу после коммита смены статуса и страховочно по интервалу.
+ *       Позиции становятся видимы только вместе со всеми меньшими, поэтому курсор {@code position > after}
+ *       не пропускает записи, даже если транзакции смены статуса коммитятся не в порядке id.</li>
+ *   <li>{@link #poll} — чтение по курсору; с {@code waitMs} запрос ждёт первую запись после курсора (long-poll),
+ *       не занимая поток контейнера.</li>
+ * </ul>
+ * Лента читается из основной базы: на отстающей реплике голова и записи расходились бы с уже опубликованным.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+    static final int MAX_LIMIT = 1000;
+
+    private final DocumentChangeRepository changeRepository;
+    private final DocumentChangeHeadRepository headRepository;
+    private final ChangeFeedProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService publisher =
+        Executors.newSingleThreadExecutor(Thread.ofPlatform().name("change-feed-publisher").daemon(true).factory());
+    private final AtomicBoolean publishRequested = new AtomicBoolean();
+    /** Последняя известная позиция ленты: после локальной публикации или проверки для ожидающих запросов. */
+    private final AtomicLong knownHead = new AtomicLong();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    public ChangeFeedService(DocumentChangeRepository changeRepository,
+                             DocumentChangeHeadRepository headRepository,
+                             ChangeFeedProperties properties,
+                             PlatformTransactionManager transactionManager) {
+        this.changeRepository = changeRepository;
+        this.headRepository = headRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Записывает смену статуса документов в ленту; публикация — после коммита текущей транзакции. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Long> documentIds, DocumentStatus from, DocumentStatus to, String initiator) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        changeRepository.saveAll(documentIds.stream()
+            .map(id -> new DocumentChange(null, id, from, to, initiator, now, null))
+            .toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                requestPublish();
+            }
+        });
+    }
+
+    /**
+     * Порция ленты после позиции {@code after}. Если {@code waitMs > 0} и новых записей нет, ответ приходит
+     * с первой опубликованной записью или пустым по истечении {@code waitMs}.
+     */
+    public DeferredResult<ChangeFeedResponse> poll(long after, int limit, long waitMs) {
+        if (after < 0) {
+            throw new ValidationException("after must be >= 0");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (waitMs < 0 || waitMs > properties.getMaxWait().toMillis()) {
+            throw new ValidationException("waitMs must be between 0 and " + properties.getMaxWait().toMillis());
+        }
+
+        ChangeFeedResponse current = read(after, limit);
+        if (!current.changes().isEmpty() || waitMs == 0) {
+            DeferredResult<ChangeFeedResponse> result = new DeferredResult<>();
+            result.setResult(current);
+            return result;
+        }
+        DeferredResult<ChangeFeedResponse> result =
+            new DeferredResult<>(waitMs, () -> new ChangeFeedResponse(List.of(), after));
+        Waiter waiter = new Waiter(after, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // публикация могла пройти между чтением и регистрацией
+        wakeWaiters();
+        return result;
+    }
+
+    /**
+     * @throws ChangeCursorExpiredException если записи сразу после {@code after} уже удалены по retention
+     */
+    public ChangeFeedResponse read(long after, int limit) {
+        return ReplicaRoutingDataSource.onPrimary(() -> readPublished(after, limit));
+    }
+
+    private ChangeFeedResponse readPublished(long after, int limit) {
+        // голова читается до записей: всё, что не больше неё, уже закоммичено и может исчезнуть только из-за retention
+        long head = headPosition();
+        List<DocumentChangeResponse> changes = changeRepository.findPublishedAfter(after, PageRequest.of(0, limit)).stream()
+            .map(DocumentChangeResponse::from)
+            .toList();
+        boolean pruned = after > 0 && (changes.isEmpty()
+            ? head > after
+            : changes.getFirst().position() != after + 1);
+        if (pruned) {
+            throw new ChangeCursorExpiredException(after);
+        }
+        return new ChangeFeedResponse(changes, changes.isEmpty() ? after : changes.getLast().position());
+    }
+
+    @Scheduled(initialDelayString = "${document.changes.publish-interval-ms:1000}",
+               fixedDelayString = "${document.changes.publish-interval-ms:1000}")
+    public void publishPending() {
+        try {
+            if (!ReplicaRoutingDataSource.onPrimary(changeRepository::existsByPositionIsNull)) {
+                return;
+            }
+            int published;
+            do {
+                published = transactionTemplate.execute(tx -> publishBatch());
+            } while (published == properties.getPublishBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Change feed publication failed: {}", e.getMessage());
+        }
+    }
+
+    /** Для ожидающих long-poll: записи могли опубликовать другие реплики. */
+    @Scheduled(fixedDelayString = "${document.changes.poll-interval-ms:200}")
+    public void checkForWaiters() {
+        if (!waiters.isEmpty()) {
+            advanceHead(headPosition());
+        }
+    }
+
+    @Scheduled(cron = "${document.changes.retention-cron:0 */10 * * * *}")
+    public void pruneExpired() {
+        prune(LocalDateTime.now().minus(properties.getRetention()));
+    }
+
+    /** Удаляет опубликованные записи старше {@code cutoff} порциями по {@code prune-batch-size}. */
+    public int prune(LocalDateTime cutoff) {
+        int batchSize = Math.max(1, properties.getPruneBatchSize());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(tx -> {
+                List<Long> ids = changeRepository.findExpiredIds(cutoff, PageRequest.of(0, batchSize));
+                return ids.isEmpty() ? 0 : changeRepository.deleteByIds(ids);
+            });
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.info("Change feed: pruned {} entries older than {}", total, cutoff);
+        }
+        return total;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureHead() {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (!headRepository.existsById(DocumentChangeHead.ID)) {
+                    headRepository.save(new DocumentChangeHead(DocumentChangeHead.ID, 0));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // строку одновременно создала другая реплика
+            log.debug("Change feed head already exists");
+        }
+        knownHead.accumulateAndGet(headPosition(), Math::max);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.shutdownNow();
+    }
+
+    private void requestPublish() {
+        // запросы, пришедшие до старта публикации, схлопываются в один запуск
+        if (publishRequested.compareAndSet(false, true)) {
+            try {
+                publisher.execute(() -> {
+                    publishRequested.set(false);
+                    publishPending();
+                });
+            } catch (RejectedExecutionException e) {
+                // остановка приложения: неопубликованное подберёт следующий запуск
+                publishRequested.set(false);
+            }
+        }
+    }
+
+    private int publishBatch() {
+        DocumentChangeHead head = headRepository.findByIdForUpdate(DocumentChangeHead.ID)
+            .orElseThrow(() -> new IllegalStateException("document_change_head row missing"));
+        // выборка после блокировки: записи, опубликованные предыдущим владельцем блокировки, в неё уже не попадут
+        List<DocumentChange> pending = changeRepository.findUnpublished(PageRequest.of(0, properties.getPublishBatchSize()));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long position = head.getPosition();
+        for (DocumentChange change : pending) {
+            change.setPosition(++position);
+        }
+        head.setPosition(position);
+        long published = position;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advanceHead(published);
+            }
+        });
+        return pending.size();
+    }
+
+    private long headPosition() {
+        return ReplicaRoutingDataSource.onPrimary(() -> headRepository.findPosition(DocumentChangeHead.ID).orElse(0L));
+    }
+
+    private void advanceHead(long position) {
+        knownHead.accumulateAndGet(position, Math::max);
+        wakeWaiters();
+    }
+
+    private void wakeWaiters() {
+        long head = knownHead.get();
+        for (Waiter waiter : waiters) {
+            if (waiter.after() < head && waiters.remove(waiter)) {
+                try {
+                    waiter.result().setResult(read(waiter.after(), waiter.limit()));
+                } catch (RuntimeException e) {
+                    waiter.result().setErrorResult(e);
+                }
+            }
+        }
+    }
+
+    private record Waiter(long after, int limit, DeferredResult<ChangeFeedResponse> result) {
+    }
+}
@@ -1,27 +1,71 @@
 package com.itq.service;
 
+import com.itq.config.ConcurrentApprovalProperties;
+import com.itq.config.ReplicaRoutingDataSource;
 import com.itq.dto.ConcurrentApprovalResult;
+import com.itq.dto.ExecutorStatsResponse;
 import com.itq.entity.enums.StatusChangeResultType;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Тест конкурентного утверждения одного документа. Попытки всех вызовов выполняются в одном общем пуле
+ * фиксированного размера с ограниченной очередью: вызов не создаёт собственных потоков, а если его попытки
+ * не помещаются в очередь, он отклоняется целиком ({@link RejectedExecutionException} → 503).
+ */
 @Service
-@RequiredArgsConstructor
 public class ConcurrentApprovalService {
 
     private static final Logger log = LoggerFactory.getLogger(ConcurrentApprovalService.class);
 
     private final DocumentService documentService;
+    private final ConcurrentApprovalProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public ConcurrentApprovalService(DocumentService documentService, ConcurrentApprovalProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.documentService = documentService;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+            Thread.ofPlatform().name("concurrent-approve-", 0).daemon(true).factory());
+        // Тест запускают редко: без нагрузки потоки пула не держатся
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, "concurrentApproval", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ExecutorStatsResponse executorStats() {
+        return new ExecutorStatsResponse(
+            executor.getMaximumPoolSize(),
+            executor.getPoolSize(),
+            executor.getActiveCount(),
+            executor.getQueue().size(),
+            executor.getQueue().remainingCapacity(),
+            executor.getCompletedTaskCount()
+        );
+    }
 
     public ConcurrentApprovalResult runConcurrentApproval(Long documentId, int threads, int attempts, String initiator) {
-        ExecutorService executor = Executors.newFixedThreadPool(threads);
         AtomicInteger successCount = new AtomicInteger(0);
         AtomicInteger conflictCount = new AtomicInteger(0);
         AtomicInteger errorCount = new AtomicInteger(0);
@@ -29,46 +73,51 @@ public class ConcurrentApprovalService {
         int totalAttempts = threads * attempts;
         List<Future<StatusChangeResultType>> futures = new ArrayList<>();
 
-        for (int t = 0; t < threads; t++) {
-            for (int a = 0; a < attempts; a++) {
-                futures.add(executor.submit(() -> {
-                    try {
-                        documentService.approveOne(documentId, initiator, "concurrent test");
-                        successCount.incrementAndGet();
-                        return StatusChangeResultType.SUCCESS;
-                    } catch (Exception e) {
-                        String msg = e.getMessage();
-                        if (msg != null && msg.contains("must be in SUBMITTED")) {
-                            conflictCount.incrementAndGet();
-                            return StatusChangeResultType.CONFLICT;
-                        }
-                        if (msg != null && msg.contains("not found")) {
-                            return StatusChangeResultType.NOT_FOUND;
-                        }
-                        errorCount.incrementAndGet();
-                        return StatusChangeResultType.REGISTRY_ERROR;
-                    }
-                }));
+        Callable<StatusChangeResultType> attempt = () -> {
+            try {
+                documentService.approveOne(documentId, initiator, "concurrent test");
+                successCount.incrementAndGet();
+                return StatusChangeResultType.SUCCESS;
+            } catch (Exception e) {
+                String msg = e.getMessage();
+                if (msg != null && msg.contains("must be in SUBMITTED")) {
+                    conflictCount.incrementAndGet();
+                    return StatusChangeResultType.CONFLICT;
+                }
+                if (msg != null && msg.contains("not found")) {
+                    return StatusChangeResultType.NOT_FOUND;
+                }
+                errorCount.incrementAndGet();
+                return StatusChangeResultType.REGISTRY_ERROR;
+            }
+        };
+        try {
+            for (int i = 0; i < totalAttempts; i++) {
+                futures.add(executor.submit(attempt));
             }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new RejectedExecutionException("Concurrent approval pool is busy: " + totalAttempts
+                + " attempts do not fit into the queue (" + executor.getQueue().remainingCapacity() + " free)");
         }
 
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
         for (Future<StatusChangeResultType> f : futures) {
             try {
-                f.get(10, TimeUnit.SECONDS);
+                f.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                f.cancel(true);
+                errorCount.incrementAndGet();
             } catch (Exception e) {
-                log.warn("Task failed: {}", e.getMessage());
+                log.warn("Task failed: {}", e.toString());
+                f.cancel(true);
                 errorCount.incrementAndGet();
             }
         }
 
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        var doc = documentService.getDocument(documentId);
+        // попытки писали из потоков пула, окно read-your-writes этого потока не открыто
+        var doc = ReplicaRoutingDataSource.onPrimary(() -> documentService.getDocument(documentId));
         String finalStatus = doc.status().name();
 
         String message = "Expected: exactly 1 success, rest conflicts. " +
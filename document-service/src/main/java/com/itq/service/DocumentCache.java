@@ -0,0 +1,121 @@
+package com.itq.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.itq.config.DocumentCacheProperties;
+import com.itq.config.ReplicaRoutingDataSource;
+import com.itq.dto.DocumentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш {@link DocumentResponse} по id с ограничением размера (W-TinyLFU) и TTL.
+ * Пути смены статуса вызывают {@link #evictAfterCommit}: запись удаляется после завершения транзакции,
+ * поэтому параллельное чтение не может вернуть в кэш состояние до коммита.
+ * Загрузки в кэш читают основную базу: строка с отстающей реплики осталась бы в кэше на весь TTL.
+ */
+@Component
+public class DocumentCache {
+
+    private final Cache<Long, DocumentResponse> cache;
+    private final boolean enabled;
+    /** Счётчик инвалидаций: если он изменился за время пакетной загрузки, её результат убирается из кэша. */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DocumentCache(DocumentCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(enabled ? properties.getMaxSize() : 0)
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "documents");
+    }
+
+    /**
+     * Чтение через кэш. Загрузка выполняется под блокировкой ключа Caffeine:
+     * инвалидация того же id дожидается её окончания и удаляет загруженное значение.
+     */
+    public DocumentResponse get(Long id, Function<Long, DocumentResponse> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return cache.get(id, key -> ReplicaRoutingDataSource.onPrimary(() -> loader.apply(key)));
+    }
+
+    /**
+     * Пакетное чтение: найденные в кэше документы плюс загруженные {@code loader} промахи.
+     * Результат — по id; отсутствующие в БД id в нём отсутствуют.
+     */
+    public Map<Long, DocumentResponse> getAll(Collection<Long> ids,
+                                              Function<Collection<Long>, List<DocumentResponse>> loader) {
+        if (!enabled) {
+            return toMap(loader.apply(ids));
+        }
+        Map<Long, DocumentResponse> found = new HashMap<>(cache.getAllPresent(ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return found;
+        }
+        long epoch = invalidations.get();
+        Map<Long, DocumentResponse> loaded = toMap(ReplicaRoutingDataSource.onPrimary(() -> loader.apply(missing)));
+        found.putAll(loaded);
+        cache.putAll(loaded);
+        if (invalidations.get() != epoch) {
+            // за время чтения из БД была инвалидация — загруженное могло устареть
+            cache.invalidateAll(loaded.keySet());
+        }
+        return found;
+    }
+
+    /**
+     * Удаляет документы из кэша после завершения текущей транзакции (при откате тоже — это безопасно).
+     * Вне транзакции удаляет сразу.
+     */
+    public void evictAfterCommit(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> snapshot = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(snapshot);
+                }
+            });
+        } else {
+            evict(snapshot);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void evict(Collection<Long> ids) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    private static Map<Long, DocumentResponse> toMap(List<DocumentResponse> documents) {
+        Map<Long, DocumentResponse> result = new HashMap<>(documents.size() * 2);
+        documents.forEach(d -> result.put(d.id(), d));
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.itq.service;
+
+import com.itq.exception.ValidationException;
+import com.itq.repository.DocumentSpecifications;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Курсор keyset-пагинации: поле и направление сортировки плюс значения ключа
+ * (значение поля сортировки и id) последнего элемента страницы.
+ * Снаружи это непрозрачная base64url-строка; направление и поле зашиты внутрь,
+ * чтобы курсор нельзя было применить к другой сортировке.
+ */
+record DocumentCursor(String sortBy, Sort.Direction direction, LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static Sort sort(String sortBy, Sort.Direction direction) {
+        if (!DocumentSpecifications.SORT_FIELDS.contains(sortBy)) {
+            throw new ValidationException("Cursor pagination supports sortBy: " + DocumentSpecifications.SORT_FIELDS);
+        }
+        return "id".equals(sortBy)
+            ? Sort.by(direction, "id")
+            : Sort.by(direction, "createdAt", "id");
+    }
+
+    static DocumentCursor of(String sortBy, Sort.Direction direction, ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        return new DocumentCursor(sortBy, direction, (LocalDateTime) keys.get("createdAt"), (Long) keys.get("id"));
+    }
+
+    static DocumentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4 || !DocumentSpecifications.SORT_FIELDS.contains(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new DocumentCursor(
+                parts[0],
+                Sort.Direction.fromString(parts[1]),
+                parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]),
+                Long.valueOf(parts[3])
+            );
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = sortBy + SEPARATOR + direction + SEPARATOR
+            + (createdAt != null ? createdAt : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ScrollPosition toPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if ("createdAt".equals(sortBy)) {
+            keys.put("createdAt", createdAt);
+        }
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
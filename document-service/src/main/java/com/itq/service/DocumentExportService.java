@@ -0,0 +1,149 @@
+package com.itq.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itq.config.ExportProperties;
+import com.itq.dto.DocumentResponse;
+import com.itq.dto.SearchCriteria;
+import com.itq.entity.Document;
+import com.itq.exception.ValidationException;
+import com.itq.repository.DocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка результатов поиска в NDJSON или CSV без накопления в памяти:
+ * строки читаются курсором JDBC и пишутся в ответ по одной, буфер сбрасывается после каждой порции fetch-size.
+ */
+@Service
+public class DocumentExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentExportService.class);
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unsupported export format: " + value + ". Use ndjson or csv");
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "id,uniqueNumber,author,title,status,createdAt,updatedAt";
+
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+
+    public DocumentExportService(DocumentRepository documentRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 ExportProperties exportProperties) {
+        this.documentRepository = documentRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.exportProperties = exportProperties;
+    }
+
+    /**
+     * Фильтры разбираются сразу, чтобы ошибка валидации вернулась клиенту до начала ответа;
+     * чтение из БД начинается, когда контейнер вызывает {@link StreamingResponseBody#writeTo}.
+     */
+    public StreamingResponseBody export(SearchCriteria criteria, Format format) {
+        Specification<Document> spec = DocumentService.toSpecification(criteria);
+        return out -> write(spec, format, out);
+    }
+
+    private void write(Specification<Document> spec, Format format, OutputStream out) {
+        int fetchSize = exportProperties.getFetchSize();
+        long started = System.currentTimeMillis();
+        Long written = readOnlyTx.execute(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            long rows = 0;
+            try (Stream<DocumentResponse> documents = documentRepository.streamResponses(spec, fetchSize)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                for (DocumentResponse doc : (Iterable<DocumentResponse>) documents::iterator) {
+                    writeRow(writer, format, doc);
+                    if (++rows % fetchSize == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // клиент закрыл соединение — дочитывать курсор незачем
+                log.info("Export {} aborted by client after {} documents: {}", format, rows, e.getMessage());
+            }
+            return rows;
+        });
+        log.info("Export {}: {} documents in {} ms", format, written, System.currentTimeMillis() - started);
+    }
+
+    private void writeRow(Writer writer, Format format, DocumentResponse doc) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(doc));
+        } else {
+            writer.write(String.valueOf(doc.id()));
+            writer.write(',');
+            writer.write(csv(doc.uniqueNumber()));
+            writer.write(',');
+            writer.write(csv(doc.author()));
+            writer.write(',');
+            writer.write(csv(doc.title()));
+            writer.write(',');
+            writer.write(String.valueOf(doc.status()));
+            writer.write(',');
+            writer.write(doc.createdAt() != null ? doc.createdAt().toString() : "");
+            writer.write(',');
+            writer.write(doc.updatedAt() != null ? doc.updatedAt().toString() : "");
+        }
+        writer.write('\n');
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
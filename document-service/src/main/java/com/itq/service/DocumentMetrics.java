@@ -0,0 +1,193 @@
+package com.itq.service;
+
+import com.itq.dto.BatchResultDto;
+import com.itq.dto.ItemResult;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.exception.DocumentNotFoundException;
+import com.itq.exception.RegistryException;
+import com.itq.exception.ValidationException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Метрики пути смены статуса (Micrometer, {@code /actuator/prometheus}).
+ * Теги — только из фиксированных наборов: операция, тип результата, исход, воркер; id и инициаторы в теги не попадают.
+ * <ul>
+ *   <li>{@code document.batch.duration}, {@code document.batch.size} — вызов submit/approve целиком и его размер</li>
+ *   <li>{@code document.item.duration} — утверждение одного документа ({@link ApproveOneExecutor}: approveOne, повтор после отката пачки) с исходом</li>
+ *   <li>{@code document.approve.chunk.duration} — транзакция пачки {@link BulkApproveExecutor}</li>
+ *   <li>{@code document.lock.wait} — ожидание {@code select ... for update} или условного UPDATE</li>
+ *   <li>{@code document.registry.write} — запись в реестр утверждений</li>
+ *   <li>{@code document.results} — результаты по {@link StatusChangeResultType}</li>
+ *   <li>{@code document.worker.batch.duration}, {@code document.worker.batch.size} — пачки воркеров</li>
+ *   <li>{@code document.status.count} — документов в статусе (очереди воркеров — DRAFT и SUBMITTED), из счётчиков</li>
+ * </ul>
+ */
+@Component
+public class DocumentMetrics {
+
+    public static final String SUBMIT = "submit";
+    public static final String APPROVE = "approve";
+
+    private final MeterRegistry registry;
+
+    public DocumentMetrics(MeterRegistry registry, StatusCounterService statusCounterService) {
+        this.registry = registry;
+        for (DocumentStatus status : DocumentStatus.values()) {
+            Gauge.builder("document.status.count", statusCounterService, s -> s.count(status))
+                .description("Документов в статусе по счётчикам document_status_counter")
+                .tag("status", status.name())
+                .register(registry);
+        }
+    }
+
+    /**
+     * Вызов submit/approve целиком. Вызывается внутри его транзакции; время останавливается после её завершения,
+     * поэтому включает flush истории при коммите, а результаты считаются только у закоммиченных вызовов.
+     */
+    public BatchResultDto recordBatch(String operation, int size, Supplier<BatchResultDto> call) {
+        Timer.Sample sample = Timer.start(registry);
+        BatchResultDto result = call.get();
+        afterCompletion(committed -> {
+            sample.stop(Timer.builder("document.batch.duration")
+                .description("Время вызова submit/approve на пачку id, включая коммит")
+                .tags("operation", operation, "outcome", committed ? "committed" : "rolled_back")
+                .register(registry));
+            DistributionSummary.builder("document.batch.size")
+                .description("Число id в вызове submit/approve")
+                .tag("operation", operation)
+                .register(registry)
+                .record(size);
+            if (committed) {
+                countResults(operation, result);
+            }
+        });
+        return result;
+    }
+
+    /** Один документ по-документным путём; исход — тип результата или {@code error} для прочих исключений. */
+    public void recordItem(String operation, Runnable call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            call.run();
+            outcome = outcome(StatusChangeResultType.SUCCESS);
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("document.item.duration")
+                .description("Время смены статуса одного документа отдельной транзакцией")
+                .tags("operation", operation, "outcome", outcome)
+                .register(registry));
+        }
+    }
+
+    public <T> T recordChunk(Supplier<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "rolled_back";
+        try {
+            T result = call.get();
+            outcome = "committed";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("document.approve.chunk.duration")
+                .description("Транзакция пачки утверждения (блокировка, реестр, UPDATE, история)")
+                .tag("outcome", outcome)
+                .register(registry));
+        }
+    }
+
+    /**
+     * Ожидание блокировки строк документов.
+     *
+     * @param scope {@code single} — одна строка, {@code batch} — пачка,
+     *              {@code conditional_update} — условный UPDATE оптимистичного режима approve
+     */
+    public <T> T recordLockWait(String operation, String scope, Supplier<T> lock) {
+        return Timer.builder("document.lock.wait")
+            .description("Ожидание select ... for update по документам")
+            .tags("operation", operation, "scope", scope)
+            .register(registry)
+            .record(lock);
+    }
+
+    public void recordRegistryWrite(Runnable write) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "failure";
+        try {
+            write.run();
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("document.registry.write")
+                .description("Запись в реестр утверждений")
+                .tag("outcome", outcome)
+                .register(registry));
+        }
+    }
+
+    public void recordWorkerBatch(String operation, int size, long elapsedMs) {
+        Timer.builder("document.worker.batch.duration")
+            .description("Обработка пачки воркером, включая все партиции")
+            .tag("worker", operation)
+            .register(registry)
+            .record(Duration.ofMillis(elapsedMs));
+        DistributionSummary.builder("document.worker.batch.size")
+            .description("Размер пачки, взятой воркером")
+            .tag("worker", operation)
+            .register(registry)
+            .record(size);
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            callback.accept(true);
+        }
+    }
+
+    private void countResults(String operation, BatchResultDto result) {
+        Map<StatusChangeResultType, Integer> counts = new EnumMap<>(StatusChangeResultType.class);
+        for (ItemResult item : result.results()) {
+            counts.merge(item.result(), 1, Integer::sum);
+        }
+        counts.forEach((type, n) -> registry.counter("document.results",
+            "operation", operation, "result", outcome(type)).increment(n));
+    }
+
+    /** Исключения по-документного пути в терминах {@link StatusChangeResultType}, как их переводит DocumentService. */
+    private static String outcome(RuntimeException e) {
+        if (e instanceof DocumentNotFoundException) {
+            return outcome(StatusChangeResultType.NOT_FOUND);
+        }
+        if (e instanceof ValidationException) {
+            return outcome(StatusChangeResultType.CONFLICT);
+        }
+        if (e instanceof RegistryException) {
+            return outcome(StatusChangeResultType.REGISTRY_ERROR);
+        }
+        return "error";
+    }
+
+    private static String outcome(StatusChangeResultType type) {
+        return type.name().toLowerCase();
+    }
+}
@@ -1,5 +1,7 @@
 package com.itq.service;
 
+import com.itq.config.ApproveProperties;
+import com.itq.config.WorkerProperties;
 import com.itq.dto.*;
 import com.itq.entity.Document;
 import com.itq.entity.History;
@@ -11,6 +13,7 @@ import com.itq.exception.RegistryException;
 import com.itq.exception.ValidationException;
 import com.itq.repository.ApprovalRegistryRepository;
 import com.itq.repository.DocumentRepository;
+import com.itq.repository.DocumentSpecifications;
 import com.itq.repository.HistoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -18,23 +21,50 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class DocumentService {
 
     private static final Logger log = LoggerFactory.getLogger(DocumentService.class);
-    private static final int MAX_BATCH_SIZE = 1000;
+    /** Потолок id в одном submit/approve. */
+    public static final int MAX_BATCH_SIZE = 1000;
+    /** Потолок size для страничных выборок; большие объёмы — через /export или /scroll. */
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_CREATE_BATCH_SIZE = 5000;
+    static final int MAX_LOOKUP_IDS = 10000;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
 
     private final DocumentRepository documentRepository;
     private final HistoryRepository historyRepository;
     private final ApproveOneExecutor approveOneExecutor;
+    private final BulkApproveExecutor bulkApproveExecutor;
+    private final ApproveProperties approveProperties;
+    private final WorkerProperties workerProperties;
+    private final StatusCounterService statusCounterService;
+    private final DocumentCache documentCache;
+    private final DocumentMetrics metrics;
+    private final ChangeFeedService changeFeedService;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public Long createDocument(DocumentCreateRequest req) {
@@ -44,102 +74,307 @@ public class DocumentService {
         doc.setAuthor(req.author().trim());
         doc.setTitle(req.title().trim());
         doc.setStatus(DocumentStatus.DRAFT);
-        return documentRepository.save(doc).getId();
+        Long id = documentRepository.save(doc).getId();
+        statusCounterService.transition(null, DocumentStatus.DRAFT, 1);
+        return id;
+    }
+
+    /**
+     * Создаёт документы одной транзакцией: id берутся блоками из document_seq, вставки уходят
+     * JDBC-батчами (на PostgreSQL — многострочными INSERT через reWriteBatchedInserts).
+     * Все элементы проверяются до вставки; ошибки возвращаются списком с индексами.
+     *
+     * @return id в порядке элементов запроса
+     */
+    @Transactional
+    public List<Long> createDocuments(DocumentBatchCreateRequest req) {
+        if (req == null || req.documents() == null || req.documents().isEmpty()) {
+            throw new ValidationException("Documents cannot be empty");
+        }
+        if (req.documents().size() > MAX_CREATE_BATCH_SIZE) {
+            throw new ValidationException("Maximum " + MAX_CREATE_BATCH_SIZE + " documents allowed");
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < req.documents().size(); i++) {
+            try {
+                validateCreate(req.documents().get(i));
+            } catch (ValidationException e) {
+                errors.add("documents[" + i + "]: " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Invalid documents", errors);
+        }
+
+        List<Document> docs = req.documents().stream().map(item -> {
+            Document doc = new Document();
+            doc.setAuthor(item.author().trim());
+            doc.setTitle(item.title().trim());
+            doc.setStatus(DocumentStatus.DRAFT);
+            return doc;
+        }).toList();
+        List<Long> ids = documentRepository.saveAll(docs).stream().map(Document::getId).toList();
+        statusCounterService.transition(null, DocumentStatus.DRAFT, ids.size());
+        return ids;
     }
 
     public DocumentResponse getDocument(Long id) {
-        Document doc = documentRepository.findById(id)
-            .orElseThrow(() -> new DocumentNotFoundException(id));
-        return toResponse(doc);
+        return documentCache.get(id, key -> documentRepository.findById(key)
+            .map(DocumentResponse::from)
+            .orElseThrow(() -> new DocumentNotFoundException(key)));
     }
 
     @Transactional(readOnly = true)
     public DocumentWithHistoryResponse getDocumentWithHistory(Long id) {
-        Document doc = documentRepository.findById(id)
+        return getDocumentWithHistory(id, null, null);
+    }
+
+    /**
+     * Документ и история одним запросом. С {@code historyLimit} — только последние записи, более старые читаются
+     * следующими вызовами с {@code historyBefore} = historyNextCursor предыдущего ответа.
+     */
+    @Transactional(readOnly = true)
+    public DocumentWithHistoryResponse getDocumentWithHistory(Long id, Integer historyLimit, Long historyBefore) {
+        if (historyLimit != null && (historyLimit < 1 || historyLimit > MAX_PAGE_SIZE)) {
+            throw new ValidationException("History limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return documentRepository.findWithHistory(id, historyLimit, historyBefore)
             .orElseThrow(() -> new DocumentNotFoundException(id));
-        List<History> historyList = historyRepository.findByDocumentIdOrderByCreatedAtAsc(id);
-        return new DocumentWithHistoryResponse(
-            toResponse(doc),
-            historyList.stream().map(this::toHistoryResponse).toList()
-        );
     }
 
     public List<DocumentResponse> getDocumentsByIds(List<Long> ids) {
+        return lookupDocuments(ids).documents();
+    }
+
+    /**
+     * Документы по списку id в порядке первого вхождения (дубли схлопываются) и список id, которых нет.
+     * Промахи кэша читаются пачками по {@value #LOOKUP_CHUNK_SIZE}, каждая пачка — один параметр-массив.
+     */
+    public DocumentLookupResponse lookupDocuments(List<Long> ids) {
         if (ids == null || ids.isEmpty()) {
-            return List.of();
+            return new DocumentLookupResponse(List.of(), List.of());
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.size() > MAX_LOOKUP_IDS) {
+            throw new ValidationException("At most " + MAX_LOOKUP_IDS + " distinct ids can be requested");
         }
-        List<Document> docs = documentRepository.findByIdIn(ids);
-        return docs.stream().map(this::toResponse).toList();
+        Map<Long, DocumentResponse> found = documentCache.getAll(distinctIds, this::loadByIds);
+        List<DocumentResponse> documents = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            DocumentResponse doc = found.get(id);
+            if (doc != null) {
+                documents.add(doc);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new DocumentLookupResponse(documents, missingIds);
+    }
+
+    private List<DocumentResponse> loadByIds(Collection<Long> ids) {
+        List<Long> list = List.copyOf(ids);
+        List<DocumentResponse> result = new ArrayList<>(list.size());
+        for (int from = 0; from < list.size(); from += LOOKUP_CHUNK_SIZE) {
+            Long[] chunk = list.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, list.size())).toArray(Long[]::new);
+            result.addAll(documentRepository.findResponsesByIds(chunk));
+        }
+        return result;
+    }
+
+    /** Документы по списку id (как {@link #getDocumentsByIds}) и история всех найденных — одним запросом. */
+    @Transactional(readOnly = true)
+    public List<DocumentWithHistoryResponse> getDocumentsWithHistoryByIds(List<Long> ids) {
+        if (ids != null && new HashSet<>(ids).size() > MAX_PAGE_SIZE) {
+            throw new ValidationException("At most " + MAX_PAGE_SIZE + " ids can be requested with history");
+        }
+        List<DocumentResponse> documents = getDocumentsByIds(ids);
+        Map<Long, List<HistoryResponse>> histories = documentRepository.findHistories(
+            documents.stream().map(DocumentResponse::id).toList());
+        return documents.stream()
+            .map(doc -> new DocumentWithHistoryResponse(doc, histories.getOrDefault(doc.id(), List.of()), null))
+            .toList();
     }
 
     @Transactional
     public BatchResultDto submit(BatchOpRequest req) {
         validateBatch(req);
+        return metrics.recordBatch(DocumentMetrics.SUBMIT, req.ids().size(), () -> submitLocked(req));
+    }
+
+    private BatchResultDto submitLocked(BatchOpRequest req) {
+        Map<Long, DocumentStatus> statuses = new HashMap<>();
+        metrics.recordLockWait(DocumentMetrics.SUBMIT, "batch",
+                () -> documentRepository.findStatusesForUpdate(new LinkedHashSet<>(req.ids())))
+            .forEach(v -> statuses.put(v.getId(), v.getStatus()));
+        List<Long> drafts = statuses.entrySet().stream()
+            .filter(e -> e.getValue() == DocumentStatus.DRAFT)
+            .map(Map.Entry::getKey)
+            .toList();
+
+        if (!drafts.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            int updated = documentRepository.updateStatus(drafts, DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, now);
+            if (updated != drafts.size()) {
+                throw new IllegalStateException("Bulk submit touched " + updated + " of " + drafts.size() + " locked drafts");
+            }
+            String comment = req.comment() != null ? req.comment() : "";
+            historyRepository.saveAll(drafts.stream()
+                .map(id -> newHistory(documentRepository.getReferenceById(id), DocumentAction.SUBMIT, req.initiator(), comment))
+                .toList());
+            statusCounterService.transition(DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, drafts.size());
+            changeFeedService.record(drafts, DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, req.initiator());
+            documentCache.evictAfterCommit(drafts);
+        }
 
-        List<ItemResult> results = new ArrayList<>();
+        List<ItemResult> results = new ArrayList<>(req.ids().size());
         for (Long id : req.ids()) {
-            try {
-                submitOne(id, req.initiator(), req.comment() != null ? req.comment() : "");
-                results.add(new ItemResult(id, StatusChangeResultType.SUCCESS, "Submitted"));
-            } catch (DocumentNotFoundException e) {
+            DocumentStatus status = statuses.get(id);
+            if (status == null) {
                 results.add(new ItemResult(id, StatusChangeResultType.NOT_FOUND, "Document not found"));
-            } catch (ValidationException e) {
-                results.add(new ItemResult(id, StatusChangeResultType.CONFLICT, e.getMessage()));
+            } else if (status == DocumentStatus.DRAFT) {
+                statuses.put(id, DocumentStatus.SUBMITTED);
+                results.add(new ItemResult(id, StatusChangeResultType.SUCCESS, "Submitted"));
+            } else {
+                results.add(new ItemResult(id, StatusChangeResultType.CONFLICT,
+                    "Document must be in DRAFT status to submit. Current: " + status));
             }
         }
         return new BatchResultDto(results);
     }
 
-    @Transactional
+    /**
+     * Пачки и повтор по одному документу всегда идут в собственных транзакциях; внешняя транзакция вызова
+     * ({@code document.approve.transaction-mode=PER_CALL}) атомарности не добавляет, только держит второе соединение.
+     */
     public BatchResultDto approve(BatchOpRequest req) {
         validateBatch(req);
+        if (approveProperties.getTransactionMode() == ApproveProperties.TransactionMode.PER_CHUNK) {
+            return metrics.recordBatch(DocumentMetrics.APPROVE, req.ids().size(), () -> approveInChunks(req));
+        }
+        return new TransactionTemplate(transactionManager).execute(tx ->
+            metrics.recordBatch(DocumentMetrics.APPROVE, req.ids().size(), () -> approveInChunks(req)));
+    }
 
-        List<ItemResult> results = new ArrayList<>();
-        for (Long id : req.ids()) {
+    private BatchResultDto approveInChunks(BatchOpRequest req) {
+        String comment = req.comment() != null ? req.comment() : "";
+
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(req.ids()));
+        int chunkSize = Math.max(1, approveProperties.getChunkSize());
+        Map<Long, ItemResult> outcomes = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+            List<Long> fallback;
             try {
-                approveOneExecutor.execute(id, req.initiator(), req.comment() != null ? req.comment() : "");
-                results.add(new ItemResult(id, StatusChangeResultType.SUCCESS, "Approved"));
-            } catch (DocumentNotFoundException e) {
-                results.add(new ItemResult(id, StatusChangeResultType.NOT_FOUND, "Document not found"));
-            } catch (ValidationException e) {
-                results.add(new ItemResult(id, StatusChangeResultType.CONFLICT, e.getMessage()));
-            } catch (RegistryException e) {
-                results.add(new ItemResult(id, StatusChangeResultType.REGISTRY_ERROR, e.getMessage()));
+                BulkApproveExecutor.ChunkResult chunkResult =
+                    metrics.recordChunk(() -> bulkApproveExecutor.execute(chunk, req.initiator(), comment));
+                outcomes.putAll(chunkResult.results());
+                fallback = chunkResult.registryFailures();
+            } catch (RuntimeException e) {
+                log.warn("Bulk approve of {} ids rolled back, retrying one by one: {}", chunk.size(), e.getMessage());
+                fallback = chunk;
+            }
+            for (Long id : fallback) {
+                outcomes.put(id, approveSingle(id, req.initiator(), comment));
             }
         }
+
+        Set<Long> reported = new HashSet<>();
+        List<ItemResult> results = new ArrayList<>(req.ids().size());
+        for (Long id : req.ids()) {
+            ItemResult outcome = outcomes.get(id);
+            if (!reported.add(id) && outcome.result() == StatusChangeResultType.SUCCESS) {
+                outcome = new ItemResult(id, StatusChangeResultType.CONFLICT,
+                    "Document must be in SUBMITTED status to approve. Current: " + DocumentStatus.APPROVED);
+            }
+            results.add(outcome);
+        }
         return new BatchResultDto(results);
     }
 
-    public Page<DocumentResponse> search(SearchCriteria criteria, Pageable pageable) {
-        DocumentStatus status = criteria.status() != null && !criteria.status().isBlank()
-            ? DocumentStatus.valueOf(criteria.status().trim().toUpperCase())
-            : null;
-        String author = criteria.author() != null && !criteria.author().isBlank()
-            ? criteria.author().trim()
+    private ItemResult approveSingle(Long id, String initiator, String comment) {
+        try {
+            approveOne(id, initiator, comment);
+            return new ItemResult(id, StatusChangeResultType.SUCCESS, "Approved");
+        } catch (DocumentNotFoundException e) {
+            return new ItemResult(id, StatusChangeResultType.NOT_FOUND, "Document not found");
+        } catch (ValidationException e) {
+            return new ItemResult(id, StatusChangeResultType.CONFLICT, e.getMessage());
+        } catch (RegistryException e) {
+            return new ItemResult(id, StatusChangeResultType.REGISTRY_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * Курсорная (keyset) пагинация: следующая страница выбирается условием по ключу
+     * последнего элемента ({@code createdAt, id} или {@code id}) вместо OFFSET, count(*) не выполняется.
+     * Без курсора возвращается первая страница.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> scroll(SearchCriteria criteria, String sortBy, String sortDir,
+                                                       int size, String cursor) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = DocumentCursor.sort(sortBy, direction);
+        ScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            DocumentCursor decoded = DocumentCursor.decode(cursor);
+            if (!decoded.sortBy().equals(sortBy) || decoded.direction() != direction) {
+                throw new ValidationException("Cursor does not match sortBy/sortDir of the request");
+            }
+            position = decoded.toPosition();
+        }
+        ScrollPosition from = position;
+
+        Window<Document> window = documentRepository.findBy(
+            toSpecification(criteria),
+            q -> q.sortBy(sort).limit(size).scroll(from)
+        );
+        String nextCursor = window.hasNext() && !window.isEmpty()
+            ? DocumentCursor.of(sortBy, direction, window.positionAt(window.size() - 1)).encode()
             : null;
-        LocalDateTime from = criteria.fromDate();
-        LocalDateTime to = criteria.toDate();
+        return new CursorPageResponse<>(
+            window.getContent().stream().map(DocumentResponse::from).toList(),
+            size,
+            nextCursor != null,
+            nextCursor
+        );
+    }
 
-        Page<Document> page = documentRepository.search(status, author, from, to, pageable);
-        return page.map(this::toResponse);
+    @Transactional(readOnly = true)
+    public Page<DocumentResponse> search(SearchCriteria criteria, Pageable pageable) {
+        return documentRepository.findResponses(toSpecification(criteria), checkedPage(pageable));
     }
 
+    @Transactional(readOnly = true)
     public Page<DocumentResponse> getDocuments(Pageable pageable) {
-        return documentRepository.findAll(pageable).map(this::toResponse);
+        return documentRepository.findResponses(Specification.unrestricted(), checkedPage(pageable));
     }
 
-    public List<Document> findDraftBatch(int batchSize) {
-        return documentRepository.findByStatusOrderByIdAsc(
-            DocumentStatus.DRAFT,
-            PageRequest.of(0, batchSize)
-        );
+    /**
+     * Забирает в обработку пачку DRAFT-документов: строки, заблокированные другими узлами,
+     * пропускаются (SKIP LOCKED), взятые ids получают аренду на {@code document.workers.lease-ms}.
+     */
+    @Transactional
+    public List<Long> claimDraftBatch(int batchSize) {
+        return claimBatch(DocumentStatus.DRAFT, batchSize);
     }
 
-    public List<Document> findSubmittedBatch(int batchSize) {
-        return documentRepository.findByStatusOrderByIdAsc(
-            DocumentStatus.SUBMITTED,
-            PageRequest.of(0, batchSize)
-        );
+    @Transactional
+    public List<Long> claimSubmittedBatch(int batchSize) {
+        return claimBatch(DocumentStatus.SUBMITTED, batchSize);
+    }
+
+    private List<Long> claimBatch(DocumentStatus status, int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = documentRepository.findClaimableIds(status.name(), now, batchSize);
+        if (!ids.isEmpty()) {
+            documentRepository.claim(ids, workerProperties.getNodeId(), now.plus(Duration.ofMillis(workerProperties.getLeaseMs())));
+        }
+        return ids;
     }
 
     @Transactional
@@ -152,18 +387,17 @@ public class DocumentService {
         }
 
         doc.setStatus(DocumentStatus.SUBMITTED);
+        doc.setClaimedBy(null);
+        doc.setClaimedUntil(null);
         documentRepository.save(doc);
-
-        History history = new History();
-        history.setDocument(doc);
-        history.setAction(DocumentAction.SUBMIT);
-        history.setInitiator(initiator);
-        history.setComment(comment);
-        historyRepository.save(history);
+        historyRepository.save(newHistory(doc, DocumentAction.SUBMIT, initiator, comment));
+        statusCounterService.transition(DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, 1);
+        changeFeedService.record(List.of(id), DocumentStatus.DRAFT, DocumentStatus.SUBMITTED, initiator);
+        documentCache.evictAfterCommit(List.of(id));
     }
 
     public void approveOne(Long id, String initiator, String comment) {
-        approveOneExecutor.execute(id, initiator, comment);
+        metrics.recordItem(DocumentMetrics.APPROVE, () -> approveOneExecutor.execute(id, initiator, comment));
     }
 
     private void validateCreate(DocumentCreateRequest req) {
@@ -196,24 +430,58 @@ public class DocumentService {
         }
     }
 
-    private DocumentResponse toResponse(Document doc) {
-        return new DocumentResponse(
-            doc.getId(),
-            doc.getUniqueNumber() != null ? doc.getUniqueNumber().toString() : null,
-            doc.getAuthor(),
-            doc.getTitle(),
-            doc.getStatus(),
-            doc.getCreatedAt(),
-            doc.getUpdatedAt()
-        );
+    private History newHistory(Document doc, DocumentAction action, String initiator, String comment) {
+        History history = new History();
+        history.setDocument(doc);
+        history.setAction(action);
+        history.setInitiator(initiator);
+        history.setComment(comment);
+        return history;
     }
 
-    private HistoryResponse toHistoryResponse(History h) {
-        return new HistoryResponse(
-            h.getAction().name(),
-            h.getInitiator(),
-            h.getComment() != null ? h.getComment() : "",
-            h.getCreatedAt()
+    /**
+     * Ограничивает размер страницы {@link #MAX_PAGE_SIZE}, пропускает только сортировку по индексируемым полям
+     * и добавляет id как последний ключ: порядок страниц детерминирован даже при одинаковом createdAt.
+     */
+    private static Pageable checkedPage(Pageable pageable) {
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must not exceed " + MAX_PAGE_SIZE
+                + "; use /api/documents/export or /scroll for large result sets");
+        }
+        Sort sort = pageable.getSort();
+        for (Sort.Order order : sort) {
+            if (!DocumentSpecifications.SORT_FIELDS.contains(order.getProperty())) {
+                throw new ValidationException("Sorting is supported only by: " + DocumentSpecifications.SORT_FIELDS);
+            }
+        }
+        if (sort.isSorted() && sort.getOrderFor("id") == null) {
+            Sort.Direction direction = sort.iterator().next().getDirection();
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    static Specification<Document> toSpecification(SearchCriteria criteria) {
+        return DocumentSpecifications.matches(
+            parseStatus(criteria.status()),
+            trimToNull(criteria.author()),
+            criteria.fromDate(),
+            criteria.toDate()
         );
     }
+
+    private static DocumentStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return DocumentStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown status: " + status);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
 }
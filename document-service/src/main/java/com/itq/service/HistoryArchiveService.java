@@ -0,0 +1,100 @@
+package com.itq.service;
+
+import com.itq.config.HistoryArchiveProperties;
+import com.itq.repository.HistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Обслуживание месячных секций {@code history}: секции создаются заранее на {@code partitions-ahead} месяцев,
+ * а месяцы старше {@code hot-months} переносятся в {@code history_archive} — секция копируется и удаляется
+ * целиком одной транзакцией, без построчного delete и раздувания индекса. Чтение истории документа
+ * объединяет обе таблицы, поэтому перенос для API незаметен.
+ * Без секций (H2 в тестах) холодные строки переносятся построчно.
+ */
+@Service
+public class HistoryArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryArchiveService.class);
+
+    private final HistoryRepository historyRepository;
+    private final HistoryArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public HistoryArchiveService(HistoryRepository historyRepository,
+                                 HistoryArchiveProperties properties,
+                                 PlatformTransactionManager transactionManager) {
+        this.historyRepository = historyRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${document.history.archive-cron:0 30 3 * * *}")
+    public void archiveColdMonths() {
+        ensurePartitions();
+        archive(YearMonth.now().minusMonths(Math.max(1, properties.getHotMonths()) - 1L));
+    }
+
+    /** Создаёт недостающие секции с текущего месяца на {@code partitions-ahead} вперёд. */
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensurePartitions() {
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(tx -> historyRepository.isPartitioned()))) {
+            return;
+        }
+        Set<YearMonth> existing = new HashSet<>(transactionTemplate.execute(tx -> historyRepository.findPartitionMonths()));
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (existing.contains(month)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> historyRepository.createPartition(month));
+                log.info("History partition for {} created", month);
+            } catch (RuntimeException e) {
+                // например, в секции по умолчанию уже есть строки этого месяца — их заберёт архивация
+                log.warn("History partition for {} not created: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Переносит в архив историю раньше {@code firstHotMonth}.
+     * @return перенесено строк
+     */
+    public long archive(YearMonth firstHotMonth) {
+        long moved = 0;
+        if (Boolean.TRUE.equals(transactionTemplate.execute(tx -> historyRepository.isPartitioned()))) {
+            for (YearMonth month : transactionTemplate.execute(tx -> historyRepository.findPartitionMonths())) {
+                if (!month.isBefore(firstHotMonth)) {
+                    break;
+                }
+                try {
+                    long rows = transactionTemplate.execute(tx -> historyRepository.archivePartition(month));
+                    log.info("History partition for {} archived: {} rows", month, rows);
+                    moved += rows;
+                } catch (RuntimeException e) {
+                    // секцию одновременно перенесла другая реплика
+                    log.warn("History partition for {} not archived: {}", month, e.getMessage());
+                }
+            }
+        }
+        LocalDateTime cutoff = firstHotMonth.atDay(1).atStartOfDay();
+        long rows = transactionTemplate.execute(tx -> historyRepository.archiveBefore(cutoff));
+        if (rows > 0) {
+            log.info("History rows older than {} archived: {}", cutoff, rows);
+        }
+        return moved + rows;
+    }
+}
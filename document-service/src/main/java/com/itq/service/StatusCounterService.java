@@ -0,0 +1,132 @@
+package com.itq.service;
+
+import com.itq.config.StatusCounterProperties;
+import com.itq.entity.DocumentStatusCounter;
+import com.itq.entity.DocumentStatusCounterId;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.repository.DocumentStatusCounterRepository;
+import com.itq.repository.StatusDriftView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Счётчики документов по статусам, которые обновляются в тех же транзакциях, что и смена статуса.
+ * Чтение — сумма нескольких строк {@code document_status_counter}, без count(*) по {@code document}.
+ */
+@Service
+public class StatusCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusCounterService.class);
+
+    private final DocumentStatusCounterRepository counterRepository;
+    private final StatusCounterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public StatusCounterService(DocumentStatusCounterRepository counterRepository,
+                                StatusCounterProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Учитывает переход {@code n} документов из {@code from} в {@code to} ({@code from == null} — создание).
+     * Вызывается в конце транзакции, меняющей статус, чтобы блокировка строки счётчика держалась недолго.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transition(DocumentStatus from, DocumentStatus to, long n) {
+        if (n == 0) {
+            return;
+        }
+        int stripe = ThreadLocalRandom.current().nextInt(Math.max(1, properties.getStripes()));
+        // from < to по ordinal: строки счётчиков всегда блокируются в одном порядке
+        if (from != null) {
+            add(from, stripe, -n);
+        }
+        add(to, stripe, n);
+    }
+
+    public Map<DocumentStatus, Long> counts() {
+        Map<DocumentStatus, Long> counts = new EnumMap<>(DocumentStatus.class);
+        for (DocumentStatus status : DocumentStatus.values()) {
+            counts.put(status, 0L);
+        }
+        counterRepository.totals().forEach(v -> counts.put(v.getStatus(), v.getCount()));
+        return counts;
+    }
+
+    public long count(DocumentStatus status) {
+        return counts().get(status);
+    }
+
+    /**
+     * Сверка со фактическими данными (полный count по {@code document}). По умолчанию выключена;
+     * нужна только если статусы меняли в обход сервиса.
+     * <p>Счётчики не перезаписываются, а получают поправку: разницу между числом документов и суммой счётчика,
+     * прочитанными в одном снимке. Переход, документы которого ещё не закоммичены, не входит ни в одну из сумм
+     * и добавит свою дельту поверх поправки, как и без сверки. Перед чтением блокируются все строки счётчиков,
+     * поэтому параллельные сверки разных реплик не применяют одну поправку дважды.
+     * <p>Блокировки берутся по статусам в порядке {@link DocumentStatus#ordinal()}, а не сортировкой по колонке
+     * status (она строковая: APPROVED раньше SUBMITTED), — в том же порядке, что и в {@link #transition},
+     * иначе сверка и approve (SUBMITTED, затем APPROVED) могли бы взаимно заблокироваться.
+     */
+    @Scheduled(cron = "${document.counters.reconcile-cron:-}")
+    @Transactional
+    public void reconcile() {
+        for (DocumentStatus status : DocumentStatus.values()) {
+            counterRepository.findByStatusForUpdate(status);
+        }
+        Map<DocumentStatus, Long> before = new EnumMap<>(DocumentStatus.class);
+        Map<DocumentStatus, Long> actual = new EnumMap<>(DocumentStatus.class);
+        for (StatusDriftView view : counterRepository.countsWithActual()) {
+            before.put(view.getStatus(), view.getCounted());
+            actual.put(view.getStatus(), view.getActual());
+            long drift = view.getActual() - view.getCounted();
+            if (drift != 0) {
+                add(view.getStatus(), 0, drift);
+            }
+        }
+        if (!before.equals(actual)) {
+            log.warn("Status counters drifted: counters={}, actual={}", before, actual);
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureStripes() {
+        for (DocumentStatus status : DocumentStatus.values()) {
+            for (int stripe = 0; stripe < Math.max(1, properties.getStripes()); stripe++) {
+                DocumentStatusCounterId id = new DocumentStatusCounterId(status, stripe);
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        if (!counterRepository.existsById(id)) {
+                            counterRepository.save(new DocumentStatusCounter(id, 0));
+                        }
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    // строку одновременно создала другая реплика
+                    log.debug("Counter stripe {} already exists", id);
+                }
+            }
+        }
+    }
+
+    private void add(DocumentStatus status, int stripe, long delta) {
+        if (counterRepository.add(status, stripe, delta) == 0 && counterRepository.add(status, 0, delta) == 0) {
+            throw new IllegalStateException("Status counter row missing for " + status);
+        }
+    }
+}
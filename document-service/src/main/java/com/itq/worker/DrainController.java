@@ -0,0 +1,64 @@
+package com.itq.worker;
+
+import com.itq.config.WorkerProperties;
+import com.itq.service.DocumentService;
+
+/**
+ * Состояние цикла разгребания очереди одного воркера.
+ * <p>
+ * Пока очередь не пуста, воркер берёт пачки подряд; размер пачки подстраивается так,
+ * чтобы одна пачка обрабатывалась примерно за {@code targetBatchLatencyMs}, в пределах
+ * [{@code minBatchSize}, {@code maxBatchSize}], но не больше {@link DocumentService#MAX_BATCH_SIZE}:
+ * пачку крупнее сервис отклонил бы целиком. Когда очередь пуста, следующие опросы
+ * откладываются с экспоненциально растущей паузой (от интервала воркера до {@code idleBackoffMaxMs}).
+ */
+class DrainController {
+
+    private final WorkerProperties properties;
+    private final long baseIntervalMs;
+
+    private int batchSize;
+    private long idleBackoffMs;
+    private long nextPollAt;
+
+    DrainController(WorkerProperties properties, long baseIntervalMs) {
+        this.properties = properties;
+        this.baseIntervalMs = Math.max(1, baseIntervalMs);
+        this.batchSize = clamp(properties.getBatchSize());
+    }
+
+    boolean isDue(long now) {
+        return now >= nextPollAt;
+    }
+
+    int batchSize() {
+        return batchSize;
+    }
+
+    /** Очередь пуста: удваиваем паузу до следующего опроса. */
+    void onIdle(long now) {
+        idleBackoffMs = idleBackoffMs == 0
+            ? baseIntervalMs
+            : Math.min(idleBackoffMs * 2, Math.max(baseIntervalMs, properties.getIdleBackoffMaxMs()));
+        nextPollAt = now + idleBackoffMs;
+    }
+
+    /** Пачка из {@code processed} документов обработана за {@code elapsedMs}. */
+    void onBatch(int processed, long elapsedMs) {
+        idleBackoffMs = 0;
+        nextPollAt = 0;
+        if (processed <= 0) {
+            return;
+        }
+        double perItemMs = Math.max(elapsedMs, 1) / (double) processed;
+        long ideal = Math.round(properties.getTargetBatchLatencyMs() / perItemMs);
+        // сглаживание: полшага к идеальному размеру, чтобы один выброс не раскачивал пачку
+        batchSize = clamp((batchSize + ideal) / 2);
+    }
+
+    private int clamp(long size) {
+        int min = Math.min(DocumentService.MAX_BATCH_SIZE, Math.max(1, properties.getMinBatchSize()));
+        int max = Math.min(DocumentService.MAX_BATCH_SIZE, Math.max(min, properties.getMaxBatchSize()));
+        return (int) Math.max(min, Math.min(max, size));
+    }
+}
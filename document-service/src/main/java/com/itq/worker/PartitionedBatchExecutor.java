@@ -0,0 +1,126 @@
+package com.itq.worker;
+
+import com.itq.config.WorkerProperties;
+import com.itq.dto.BatchResultDto;
+import com.itq.dto.ItemResult;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Параллельная обработка пачки воркера: ids делятся на партиции по {@code id % n},
+ * партиции выполняются одновременно на виртуальных потоках, результаты собираются
+ * в один {@link BatchResultDto} в исходном порядке ids.
+ * <p>
+ * Число партиций — {@code document.workers.parallelism}, но не больше, чем позволяет
+ * {@code max-pool-share} пула соединений с учётом того, сколько соединений держит одна партиция.
+ */
+@Component
+@ConditionalOnProperty(name = "document.workers.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionedBatchExecutor {
+
+    private final WorkerProperties workerProperties;
+    private final DataSource dataSource;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PartitionedBatchExecutor(WorkerProperties workerProperties,
+                                    @Qualifier("primaryDataSource") DataSource dataSource) {
+        this.workerProperties = workerProperties;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @param connectionsPerPartition сколько соединений одновременно держит одна партиция
+     *                                (approve в режиме PER_CALL: внешняя транзакция + REQUIRES_NEW пачки = 2)
+     */
+    public int effectiveParallelism(int connectionsPerPartition) {
+        int parallelism = Math.max(1, workerProperties.getParallelism());
+        int poolSize = maxPoolSize();
+        if (poolSize > 0) {
+            int byPool = (int) (poolSize * workerProperties.getMaxPoolShare()) / Math.max(1, connectionsPerPartition);
+            parallelism = Math.min(parallelism, Math.max(1, byPool));
+        }
+        return parallelism;
+    }
+
+    public BatchResultDto execute(List<Long> ids, int partitions, Function<List<Long>, BatchResultDto> operation) {
+        if (partitions <= 1 || ids.size() <= 1) {
+            return operation.apply(ids);
+        }
+
+        List<List<Long>> parts = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            parts.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            parts.get((int) Math.floorMod(id, partitions)).add(id);
+        }
+
+        List<Future<BatchResultDto>> futures = new ArrayList<>();
+        for (List<Long> part : parts) {
+            if (!part.isEmpty()) {
+                futures.add(executor.submit(() -> operation.apply(part)));
+            }
+        }
+
+        List<ItemResult> merged = new ArrayList<>(ids.size());
+        RuntimeException failure = null;
+        for (Future<BatchResultDto> future : futures) {
+            try {
+                merged.addAll(future.get().results());
+            } catch (ExecutionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException re
+                    ? re
+                    : new IllegalStateException(e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch partitions", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        Map<Long, Integer> order = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            order.putIfAbsent(ids.get(i), i);
+        }
+        merged.sort(Comparator.comparing(r -> order.get(r.id())));
+        return new BatchResultDto(merged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private int maxPoolSize() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()
+                : -1;
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+}
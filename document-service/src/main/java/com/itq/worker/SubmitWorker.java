@@ -4,12 +4,11 @@ import com.itq.config.WorkerProperties;
 import com.itq.dto.BatchOpRequest;
 import com.itq.dto.BatchResultDto;
 import com.itq.dto.ItemResult;
-import com.itq.entity.Document;
 import com.itq.entity.enums.DocumentStatus;
 import com.itq.entity.enums.StatusChangeResultType;
-import com.itq.repository.DocumentRepository;
+import com.itq.service.DocumentMetrics;
 import com.itq.service.DocumentService;
-import lombok.RequiredArgsConstructor;
+import com.itq.service.StatusCounterService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -20,42 +19,85 @@ import java.util.List;
 
 @Component
 @ConditionalOnProperty(name = "document.workers.enabled", havingValue = "true", matchIfMissing = true)
-@RequiredArgsConstructor
 public class SubmitWorker {
 
     private static final Logger log = LoggerFactory.getLogger(SubmitWorker.class);
     private static final String SYSTEM_INITIATOR = "submit-worker";
 
     private final DocumentService documentService;
-    private final DocumentRepository documentRepository;
+    private final StatusCounterService statusCounterService;
     private final WorkerProperties workerProperties;
+    private final PartitionedBatchExecutor partitionedBatchExecutor;
+    private final DocumentMetrics metrics;
+    private final DrainController drain;
+
+    public SubmitWorker(DocumentService documentService,
+                        StatusCounterService statusCounterService,
+                        WorkerProperties workerProperties,
+                        PartitionedBatchExecutor partitionedBatchExecutor,
+                        DocumentMetrics metrics) {
+        this.documentService = documentService;
+        this.statusCounterService = statusCounterService;
+        this.workerProperties = workerProperties;
+        this.partitionedBatchExecutor = partitionedBatchExecutor;
+        this.metrics = metrics;
+        this.drain = new DrainController(workerProperties, workerProperties.getSubmitIntervalMs());
+    }
 
     @Scheduled(initialDelayString = "${document.workers.initial-delay-ms:10000}",
                fixedDelayString = "${document.workers.submit-interval-ms}")
     public void process() {
-        int batchSize = workerProperties.getBatchSize();
-        List<Document> batch = documentService.findDraftBatch(batchSize);
-
-        if (batch.isEmpty()) {
+        long drainStart = System.currentTimeMillis();
+        if (!drain.isDue(drainStart)) {
             return;
         }
 
-        List<Long> ids = batch.stream().map(Document::getId).toList();
+        int batches = 0;
+        long processed = 0;
+        while (true) {
+            int batchSize = drain.batchSize();
+            List<Long> ids = documentService.claimDraftBatch(batchSize);
+            if (ids.isEmpty()) {
+                drain.onIdle(System.currentTimeMillis());
+                break;
+            }
+
+            processBatch(ids);
+            batches++;
+            processed += ids.size();
+
+            // Неполная пачка не значит, что очередь пуста: остальные строки могут держать воркеры других реплик
+            // (skip locked). Разгребание заканчивает только пустая выборка или max-drain-ms.
+            if (System.currentTimeMillis() - drainStart >= workerProperties.getMaxDrainMs()) {
+                break;
+            }
+        }
+
+        if (processed > 0) {
+            long remaining = statusCounterService.count(DocumentStatus.DRAFT);
+            log.info("SUBMIT-worker: drained {} documents in {} batches, {} ms, next batch size={}, осталось DRAFT={}",
+                processed, batches, System.currentTimeMillis() - drainStart, drain.batchSize(), remaining);
+        }
+    }
+
+    private void processBatch(List<Long> ids) {
         long start = System.currentTimeMillis();
 
-        BatchResultDto result = documentService.submit(
-            new BatchOpRequest(SYSTEM_INITIATOR, ids, null)
-        );
+        // submit держит одно соединение на партицию
+        int partitions = partitionedBatchExecutor.effectiveParallelism(1);
+        BatchResultDto result = partitionedBatchExecutor.execute(ids, partitions,
+            part -> documentService.submit(new BatchOpRequest(SYSTEM_INITIATOR, part, null)));
 
         long elapsed = System.currentTimeMillis() - start;
+        drain.onBatch(ids.size(), elapsed);
+        metrics.recordWorkerBatch(DocumentMetrics.SUBMIT, ids.size(), elapsed);
         long success = result.results().stream()
             .filter(r -> r.result() == StatusChangeResultType.SUCCESS)
             .count();
         long failed = result.results().size() - success;
-        long remaining = documentRepository.countByStatus(DocumentStatus.DRAFT);
 
-        log.info("SUBMIT-worker: batch of {} documents processed in {} ms, success={}, failed={}, осталось DRAFT={}",
-            batch.size(), elapsed, success, failed, remaining);
+        log.info("SUBMIT-worker: batch of {} documents processed in {} ms on {} partitions, success={}, failed={}",
+            ids.size(), elapsed, partitions, success, failed);
 
         if (failed > 0) {
             List<ItemResult> errors = result.results().stream()
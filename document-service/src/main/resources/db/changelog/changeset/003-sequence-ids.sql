@@ -0,0 +1,22 @@
+-- liquibase formatted sql
+-- changeset liquibase:003-sequence-ids
+-- bigserial (identity-style) ключи отключают JDBC batch insert в Hibernate.
+-- Переходим на pooled-последовательности с шагом 50 (= allocationSize в сущностях).
+-- setval(max + 50): первый блок Hibernate начнётся строго после существующих id.
+create sequence document_seq increment by 50;
+select setval('document_seq', (select coalesce(max(id), 0) from document) + 50);
+alter table document alter column id set default nextval('document_seq');
+alter sequence document_seq owned by document.id;
+drop sequence document_id_seq;
+
+create sequence history_seq increment by 50;
+select setval('history_seq', (select coalesce(max(id), 0) from history) + 50);
+alter table history alter column id set default nextval('history_seq');
+alter sequence history_seq owned by history.id;
+drop sequence history_id_seq;
+
+create sequence approval_registry_seq increment by 50;
+select setval('approval_registry_seq', (select coalesce(max(id), 0) from approval_registry) + 50);
+alter table approval_registry alter column id set default nextval('approval_registry_seq');
+alter sequence approval_registry_seq owned by approval_registry.id;
+drop sequence approval_registry_id_seq;
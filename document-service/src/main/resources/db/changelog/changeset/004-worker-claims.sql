@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+-- changeset liquibase:004-worker-claims
+-- Аренда документов воркерами: несколько реплик берут непересекающиеся пачки
+-- (select ... for update skip locked + claimed_until).
+alter table document
+    add column claimed_by varchar(255),
+    add column claimed_until timestamp;
+
+-- Частичные индексы по очередям воркеров: только документы в ожидающих статусах, в порядке id.
+create index idx_document_draft_queue on document (id) where status = 'DRAFT';
+create index idx_document_submitted_queue on document (id) where status = 'SUBMITTED';
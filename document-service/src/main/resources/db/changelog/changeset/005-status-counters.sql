@@ -0,0 +1,15 @@
+-- liquibase formatted sql
+-- changeset liquibase:005-status-counters
+-- Счётчики документов по статусам, разнесённые на полосы (stripe) против конкуренции за одну строку.
+-- Полоса 0 засевается фактическими значениями; недостающие полосы сервис создаёт с нулём при старте.
+create table document_status_counter
+(
+    status varchar(20) not null,
+    stripe integer not null,
+    cnt bigint not null default 0,
+    primary key (status, stripe)
+);
+
+insert into document_status_counter (status, stripe, cnt)
+select s.status, 0, (select count(*) from document d where d.status = s.status)
+from (values ('DRAFT'), ('SUBMITTED'), ('APPROVED')) as s(status);
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+-- changeset liquibase:006-keyset-index
+-- Ключ курсорной пагинации (created_at, id): страница читается диапазоном по индексу без сортировки.
+-- Индекс только по created_at становится его префиксом и больше не нужен.
+create index idx_document_created_at_id on document (created_at, id);
+drop index idx_document_created_at;
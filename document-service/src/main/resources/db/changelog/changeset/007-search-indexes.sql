@@ -0,0 +1,8 @@
+-- liquibase formatted sql
+-- changeset liquibase:007-search-indexes
+-- Составные индексы под поиск: фильтр по статусу или автору + период и сортировка по created_at
+-- читаются одним диапазоном индекса, без Filter и Sort. Одиночные индексы становятся префиксами и удаляются.
+create index idx_document_status_created_at on document (status, created_at, id);
+create index idx_document_author_created_at on document (author, created_at, id);
+drop index idx_document_status;
+drop index idx_document_author;
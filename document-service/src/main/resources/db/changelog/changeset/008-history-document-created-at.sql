@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+-- changeset liquibase:008-history-document-created-at
+-- История документа читается по (document_id, created_at, id): индекс отдаёт записи уже упорядоченными,
+-- «последние N» и курсор по истории — диапазон индекса с конца. Одиночный индекс по document_id становится префиксом.
+create index idx_history_document_created_at on history (document_id, created_at, id);
+drop index idx_history_document_id;
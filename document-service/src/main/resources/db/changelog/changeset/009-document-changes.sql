@@ -0,0 +1,29 @@
+-- liquibase formatted sql
+-- changeset liquibase:009-document-changes
+-- Outbox смен статуса: строка пишется в той же транзакции, что и смена статуса.
+-- position (порядок ленты) присваивается уже закоммиченным строкам одним публикатором под блокировкой
+-- document_change_head, поэтому читатель по position > курсора никогда не пропускает позже закоммиченную строку.
+create sequence document_change_seq increment by 50;
+
+create table document_change
+(
+    id          bigint primary key default nextval('document_change_seq'),
+    document_id bigint      not null,
+    from_status varchar(20) not null,
+    to_status   varchar(20) not null,
+    initiator   varchar(255) not null,
+    created_at  timestamp   not null,
+    position    bigint
+);
+alter sequence document_change_seq owned by document_change.id;
+
+create unique index idx_document_change_position on document_change (position);
+-- очередь публикации: только ещё не опубликованные строки
+create index idx_document_change_unpublished on document_change (id) where position is null;
+
+create table document_change_head
+(
+    id       integer primary key,
+    position bigint not null
+);
+insert into document_change_head (id, position) values (1, 0);
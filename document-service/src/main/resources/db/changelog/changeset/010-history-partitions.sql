@@ -0,0 +1,58 @@
+-- liquibase formatted sql
+-- changeset liquibase:010-history-partitions
+-- history секционируется по месяцам created_at: индекс (document_id, created_at, id) и вставки работают
+-- с секцией текущего месяца, а холодные месяцы целиком уходят в history_archive (HistoryArchiveService).
+-- Ключ секционирования входит в первичный ключ, поэтому created_at становится not null.
+alter table history rename to history_legacy;
+alter table history_legacy rename constraint history_pkey to history_legacy_pkey;
+alter index idx_history_document_created_at rename to idx_history_legacy_document_created_at;
+alter sequence history_seq owned by none;
+
+create table history
+(
+    id          bigint    not null default nextval('history_seq'),
+    document_id bigint references document (id),
+    action      varchar(20),
+    initiator   varchar(255),
+    comment     text,
+    created_at  timestamp not null,
+    primary key (id, created_at)
+) partition by range (created_at);
+create index idx_history_document_created_at on history (document_id, created_at, id);
+-- строки вне созданных секций (воркер секций отстал) не теряются; архивация забирает и их
+create table history_default partition of history default;
+
+-- Архив холодных месяцев: без FK на document, чтобы перенос секции не проверял каждую строку
+create table history_archive
+(
+    id          bigint primary key,
+    document_id bigint,
+    action      varchar(20),
+    initiator   varchar(255),
+    comment     text,
+    created_at  timestamp not null
+);
+create index idx_history_archive_document_created_at on history_archive (document_id, created_at, id);
+
+-- changeset liquibase:010-history-partitions-months splitStatements:false
+-- Секции с месяца самой старой записи по текущий + 3; дальше их заранее создаёт HistoryArchiveService
+do $$
+declare
+    month_start timestamp := date_trunc('month', coalesce(
+        (select min(created_at) from history_legacy where created_at > 'epoch'), now()));
+    last_month  timestamp := date_trunc('month', now()) + interval '3 months';
+begin
+    while month_start <= last_month loop
+        execute format('create table %I partition of history for values from (%L) to (%L)',
+            'history_y' || to_char(month_start, 'YYYY') || 'm' || to_char(month_start, 'MM'),
+            month_start, month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    end loop;
+end $$;
+
+-- changeset liquibase:010-history-partitions-copy
+insert into history (id, document_id, action, initiator, comment, created_at)
+select id, document_id, action, initiator, comment, coalesce(created_at, 'epoch')
+from history_legacy;
+drop table history_legacy;
+alter sequence history_seq owned by history.id;
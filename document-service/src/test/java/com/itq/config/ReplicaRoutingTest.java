@@ -0,0 +1,94 @@
+package com.itq.config;
+
+import com.itq.dto.BatchOpRequest;
+import com.itq.dto.DocumentCreateRequest;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.exception.DocumentNotFoundException;
+import com.itq.service.DocumentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Две встроенные H2: основная (схема из сущностей) и «реплика» с той же схемой без данных — реплика,
+ * отставшая навсегда. Документ, найденный только в основной базе, показывает, куда ушло чтение.
+ * {@code @SpringBootTest} привязывает к потоку mock-запрос, поэтому окно read-your-writes хранится в атрибуте запроса,
+ * как в HTTP-вызове, и {@link ReadYourWrites#reset()} сбрасывает именно его.
+ */
+@SpringBootTest(properties = {
+    "document.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+    "document.datasource.read-your-writes-window=1m",
+    "document.cache.enabled=false"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    DocumentService documentService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("drop all objects");
+        new JdbcTemplate(primaryDataSource).queryForList("script nodata", String.class).stream()
+            .filter(statement -> !statement.startsWith("--"))
+            .forEach(replica::execute);
+        ReadYourWrites.reset();
+    }
+
+    @AfterEach
+    void resetWindow() {
+        ReadYourWrites.reset();
+    }
+
+    @Test
+    void readsGoToReplicaOutsideReadYourWritesWindow() {
+        Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "T"));
+        // в окне после записи этот поток читает основную базу
+        assertThat(documentService.getDocument(id).id()).isEqualTo(id);
+        assertThat(documentService.getDocumentWithHistory(id).document().id()).isEqualTo(id);
+
+        ReadYourWrites.reset();
+        assertThatThrownBy(() -> documentService.getDocument(id)).isInstanceOf(DocumentNotFoundException.class);
+        assertThatThrownBy(() -> documentService.getDocumentWithHistory(id)).isInstanceOf(DocumentNotFoundException.class);
+        assertThat(documentService.getDocumentsByIds(List.of(id))).isEmpty();
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> documentService.getDocument(id)).id()).isEqualTo(id);
+
+        // запись идёт в основную базу и снова открывает окно
+        var result = documentService.submit(new BatchOpRequest("u", List.of(id), null));
+        assertThat(result.results().get(0).result()).isEqualTo(StatusChangeResultType.SUCCESS);
+        assertThat(documentService.getDocument(id).status().name()).isEqualTo("SUBMITTED");
+
+        assertThat(routed("replica-0", "read")).isPositive();
+        assertThat(routed("primary", "write")).isPositive();
+        assertThat(routed("primary", "read_your_writes")).isPositive();
+        assertThat(routed("primary", "pinned")).isPositive();
+    }
+
+    private double routed(String route, String reason) {
+        var counter = meterRegistry.find("document.datasource.route").tags("route", route, "reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
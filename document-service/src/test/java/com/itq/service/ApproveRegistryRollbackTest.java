@@ -2,6 +2,8 @@ package com.itq.service;
 
 import com.itq.dto.BatchOpRequest;
 import com.itq.dto.DocumentCreateRequest;
+import com.itq.dto.ItemResult;
+import com.itq.entity.enums.DocumentStatus;
 import com.itq.entity.enums.StatusChangeResultType;
 import com.itq.exception.RegistryException;
 import com.itq.repository.ApprovalRegistryRepository;
@@ -17,6 +19,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
 
 @SpringBootTest
@@ -58,4 +61,23 @@ class ApproveRegistryRollbackTest {
 
         assertThat(approvalRegistryRepository.existsByDocument_Id(id)).isFalse();
     }
+
+    @Test
+    void approve_batch_rollbackOnlyFailedRegistryWrite() {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("initiator", "Author", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("initiator", "Author", "T2"));
+        Long id3 = documentService.createDocument(new DocumentCreateRequest("initiator", "Author", "T3"));
+        documentService.submit(new BatchOpRequest("user", List.of(id1, id2, id3), null));
+
+        doThrow(new RegistryException("Registry write failed"))
+            .when(approvalRegistryWriter).write(argThat(r -> id2.equals(r.getDocument().getId())));
+
+        var result = documentService.approve(new BatchOpRequest("user", List.of(id1, id2, id3), null));
+
+        assertThat(result.results()).extracting(ItemResult::result).containsExactly(
+            StatusChangeResultType.SUCCESS, StatusChangeResultType.REGISTRY_ERROR, StatusChangeResultType.SUCCESS);
+        assertThat(documentRepository.findById(id1).orElseThrow().getStatus()).isEqualTo(DocumentStatus.APPROVED);
+        assertThat(documentRepository.findById(id2).orElseThrow().getStatus()).isEqualTo(DocumentStatus.SUBMITTED);
+        assertThat(documentRepository.findById(id3).orElseThrow().getStatus()).isEqualTo(DocumentStatus.APPROVED);
+    }
 }
@@ -0,0 +1,167 @@
+package com.itq.service;
+
+import com.itq.config.ApproveProperties;
+import com.itq.dto.BatchOpRequest;
+import com.itq.dto.DocumentBatchCreateRequest;
+import com.itq.dto.DocumentCreateRequest;
+import com.itq.dto.DocumentResponse;
+import com.itq.dto.SearchCriteria;
+import com.itq.entity.Document;
+import com.itq.entity.DocumentChange;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.repository.ApprovalRegistryRepository;
+import com.itq.repository.DocumentRepository;
+import com.itq.repository.HistoryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doNothing;
+
+/**
+ * Statistics у Hibernate общая на фабрику сессий, поэтому в подсчёт попадает всё, что выполняется параллельно с тестом.
+ * Публикация ленты после коммита (отдельный поток) здесь отключена, расписания ленты выключены в профиле test.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+class BatchStatementCountTest {
+
+    private static final int BATCH = 1000;
+
+    @Autowired
+    DocumentService documentService;
+
+    @Autowired
+    DocumentRepository documentRepository;
+
+    @Autowired
+    HistoryRepository historyRepository;
+
+    @Autowired
+    ApprovalRegistryRepository approvalRegistryRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ApproveProperties approveProperties;
+
+    @SpyBean
+    ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        doNothing().when(changeFeedService).publishPending();
+        approvalRegistryRepository.deleteAll();
+        historyRepository.deleteAll();
+        documentRepository.deleteAll();
+    }
+
+    @Test
+    void createDocuments_1000_insertsAreBatched() {
+        var items = IntStream.range(0, BATCH)
+            .mapToObj(i -> new DocumentCreateRequest("u", "Author", "Doc " + i))
+            .toList();
+        Statistics stats = statistics();
+
+        List<Long> ids = documentService.createDocuments(new DocumentBatchCreateRequest(items));
+
+        assertThat(ids).hasSize(BATCH).doesNotHaveDuplicates();
+        assertThat(documentRepository.findById(ids.get(BATCH - 1))).get()
+            .extracting(Document::getTitle).isEqualTo("Doc " + (BATCH - 1));
+        assertThat(stats.getEntityInsertCount()).isEqualTo(BATCH);
+        // вставки и блоки последовательности — на каждые 50 строк, плюс счётчик статусов
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(2L * BATCH / 50 + 3);
+    }
+
+    @Test
+    void submit_1000_historyInsertsAreBatched() {
+        List<Long> ids = createDocuments(DocumentStatus.DRAFT);
+        Statistics stats = statistics();
+
+        var result = documentService.submit(new BatchOpRequest("u", ids, null));
+
+        assertThat(result.results()).hasSize(BATCH)
+            .allMatch(r -> r.result() == StatusChangeResultType.SUCCESS);
+        // история и запись ленты изменений на каждый документ
+        assertThat(stats.getEntityInsertCount()).isEqualTo(2L * BATCH);
+        assertThat(outboxInserts(stats)).isEqualTo(BATCH);
+        // lock + update + (history batch + sequence block) и (outbox batch + sequence block) на каждые 50 строк;
+        // без батчей только outbox дал бы 1000 лишних запросов
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(2 + 4L * BATCH / 50 + 3);
+    }
+
+    @Test
+    void approve_1000_statementCount() {
+        List<Long> ids = createDocuments(DocumentStatus.SUBMITTED);
+        Statistics stats = statistics();
+
+        var result = documentService.approve(new BatchOpRequest("u", ids, null));
+
+        assertThat(result.results()).hasSize(BATCH)
+            .allMatch(r -> r.result() == StatusChangeResultType.SUCCESS);
+        // реестр, история и запись ленты изменений на каждый документ
+        assertThat(stats.getEntityInsertCount()).isEqualTo(3L * BATCH);
+        assertThat(outboxInserts(stats)).isEqualTo(BATCH);
+        // На каждую пачку approve: lock + update; реестр, история и лента — батчами по 50 плюс блоки последовательностей.
+        long chunks = (BATCH + approveProperties.getChunkSize() - 1) / approveProperties.getChunkSize();
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(2 * chunks + 6L * BATCH / 50 + 3);
+    }
+
+    @Test
+    void listReads_1000_projectWithoutLoadingEntities() {
+        List<Long> ids = createDocuments(DocumentStatus.DRAFT);
+        Statistics stats = statistics();
+
+        var page = documentService.search(new SearchCriteria("DRAFT", "Author", null, null),
+            PageRequest.of(0, BATCH, Sort.by("id")));
+        var byIds = documentService.getDocumentsByIds(ids);
+
+        assertThat(page.getContent()).extracting(DocumentResponse::id).containsExactlyElementsOf(ids);
+        assertThat(byIds).extracting(DocumentResponse::id).containsExactlyElementsOf(ids);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        // страница + count, затем одна пачка id одним запросом с массивом
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private List<Long> createDocuments(DocumentStatus status) {
+        return documentRepository.saveAll(IntStream.range(0, BATCH)
+                .mapToObj(i -> document("Doc " + i, status))
+                .toList())
+            .stream().map(Document::getId).toList();
+    }
+
+    private static long outboxInserts(Statistics stats) {
+        return stats.getEntityStatistics(DocumentChange.class.getName()).getInsertCount();
+    }
+
+    private Statistics statistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+
+    private static Document document(String title, DocumentStatus status) {
+        Document doc = new Document();
+        doc.setAuthor("Author");
+        doc.setTitle(title);
+        doc.setStatus(status);
+        return doc;
+    }
+}
@@ -0,0 +1,72 @@
+package com.itq.service;
+
+import com.itq.dto.DocumentCreateRequest;
+import com.itq.dto.SearchCriteria;
+import com.itq.exception.ValidationException;
+import com.itq.repository.ApprovalRegistryRepository;
+import com.itq.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "document.export.fetch-size=2")
+@ActiveProfiles("test")
+class DocumentExportServiceTest {
+
+    @Autowired
+    DocumentExportService documentExportService;
+
+    @Autowired
+    DocumentService documentService;
+
+    @Autowired
+    DocumentRepository documentRepository;
+
+    @Autowired
+    ApprovalRegistryRepository approvalRegistryRepository;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository.deleteAll();
+        approvalRegistryRepository.deleteAll();
+    }
+
+    @Test
+    void export_ndjsonStreamsFilteredDocumentsInIdOrder() throws Exception {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        documentService.createDocument(new DocumentCreateRequest("user", "B", "T2"));
+        Long id3 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T3"));
+
+        String out = export(new SearchCriteria(null, "A", null, null), DocumentExportService.Format.NDJSON);
+
+        assertThat(out.lines()).hasSize(2);
+        assertThat(out.lines().toList().get(0)).startsWith("{\"id\":" + id1 + ",").contains("\"status\":\"DRAFT\"");
+        assertThat(out.lines().toList().get(1)).startsWith("{\"id\":" + id3 + ",");
+    }
+
+    @Test
+    void export_csvEscapesSeparatorsAndQuotes() throws Exception {
+        Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "Report, \"Q1\""));
+
+        String out = export(new SearchCriteria("draft", null, null, null), DocumentExportService.Format.CSV);
+
+        assertThat(out.lines().toList().get(0)).isEqualTo("id,uniqueNumber,author,title,status,createdAt,updatedAt");
+        assertThat(out.lines().toList().get(1)).startsWith(id + ",").contains(",A,\"Report, \"\"Q1\"\"\",DRAFT,");
+        assertThatThrownBy(() -> documentExportService.export(new SearchCriteria("DONE", null, null, null),
+            DocumentExportService.Format.CSV)).isInstanceOf(ValidationException.class);
+    }
+
+    private String export(SearchCriteria criteria, DocumentExportService.Format format) throws Exception {
+        var out = new ByteArrayOutputStream();
+        documentExportService.export(criteria, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -1,9 +1,15 @@
 package com.itq.service;
 
+import com.itq.config.ApproveProperties;
 import com.itq.dto.*;
+import com.itq.entity.enums.DocumentStatus;
 import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.exception.ChangeCursorExpiredException;
+import com.itq.exception.DocumentNotFoundException;
 import com.itq.repository.ApprovalRegistryRepository;
 import com.itq.repository.DocumentRepository;
+import com.itq.repository.HistoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,9 +17,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -28,10 +36,38 @@ class DocumentServiceIntegrationTest {
     @Autowired
     ApprovalRegistryRepository approvalRegistryRepository;
 
+    @Autowired
+    HistoryRepository historyRepository;
+
+    @Autowired
+    StatusCounterService statusCounterService;
+
+    @Autowired
+    DocumentCache documentCache;
+
+    @Autowired
+    ConcurrentApprovalService concurrentApprovalService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ApproveProperties approveProperties;
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
+    @Autowired
+    HistoryArchiveService historyArchiveService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         documentRepository.deleteAll();
         approvalRegistryRepository.deleteAll();
+        statusCounterService.reconcile();
     }
 
     @Test
@@ -48,6 +84,26 @@ class DocumentServiceIntegrationTest {
         assertThat(doc.uniqueNumber()).isNotNull();
     }
 
+    @Test
+    void createDocuments_reportsAllInvalidItemsAndCreatesNothing() {
+        long drafts = statusCounterService.count(DocumentStatus.DRAFT);
+        var invalid = new DocumentBatchCreateRequest(java.util.List.of(
+            new DocumentCreateRequest("user", "A", "ok"),
+            new DocumentCreateRequest("user", " ", "T"),
+            new DocumentCreateRequest("user", "A", null)));
+
+        assertThatThrownBy(() -> documentService.createDocuments(invalid))
+            .isInstanceOfSatisfying(com.itq.exception.ValidationException.class, e -> assertThat(e.getDetails())
+                .containsExactly("documents[1]: Author cannot be empty", "documents[2]: Title cannot be empty"));
+        assertThat(documentRepository.count()).isZero();
+
+        var ids = documentService.createDocuments(new DocumentBatchCreateRequest(java.util.List.of(
+            new DocumentCreateRequest("user", "A", "first"),
+            new DocumentCreateRequest("user", "B", "second"))));
+        assertThat(ids).extracting(id -> documentService.getDocument(id).title()).containsExactly("first", "second");
+        assertThat(statusCounterService.count(DocumentStatus.DRAFT)).isEqualTo(drafts + 2);
+    }
+
     @Test
     void submit_singleDocument() {
         Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "T"));
@@ -99,6 +155,208 @@ class DocumentServiceIntegrationTest {
         assertThat(result.results().stream().filter(r -> r.result() == StatusChangeResultType.NOT_FOUND).count()).isEqualTo(1);
     }
 
+    @Test
+    void submit_batch_duplicateIdsAndHistory() {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "B", "T2"));
+
+        var result = documentService.submit(
+            new BatchOpRequest("u1", java.util.List.of(id2, id1, id2), "bulk")
+        );
+
+        assertThat(result.results()).extracting(ItemResult::id).containsExactly(id2, id1, id2);
+        assertThat(result.results()).extracting(ItemResult::result).containsExactly(
+            StatusChangeResultType.SUCCESS, StatusChangeResultType.SUCCESS, StatusChangeResultType.CONFLICT);
+
+        var withHistory = documentService.getDocumentWithHistory(id2);
+        assertThat(withHistory.document().status().name()).isEqualTo("SUBMITTED");
+        assertThat(withHistory.history()).hasSize(1);
+        assertThat(withHistory.history().get(0).initiator()).isEqualTo("u1");
+        assertThat(withHistory.history().get(0).comment()).isEqualTo("bulk");
+    }
+
+    @Test
+    void getDocumentWithHistory_pagesFromNewestAndLoadsHistoriesInBulk() {
+        Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "long history"));
+        Long other = documentService.createDocument(new DocumentCreateRequest("user", "B", "short history"));
+        Long empty = documentService.createDocument(new DocumentCreateRequest("user", "C", "no history"));
+        var doc = documentRepository.findById(id).orElseThrow();
+        for (int i = 0; i < 5; i++) {
+            var entry = new com.itq.entity.History();
+            entry.setDocument(doc);
+            entry.setAction(com.itq.entity.enums.DocumentAction.SUBMIT);
+            entry.setInitiator("u");
+            entry.setComment("c" + i);
+            historyRepository.save(entry);
+        }
+
+        var full = documentService.getDocumentWithHistory(id);
+        assertThat(full.document().title()).isEqualTo("long history");
+        assertThat(full.history()).extracting(HistoryResponse::comment).containsExactly("c0", "c1", "c2", "c3", "c4");
+        assertThat(full.historyNextCursor()).isNull();
+
+        var newest = documentService.getDocumentWithHistory(id, 2, null);
+        assertThat(newest.history()).extracting(HistoryResponse::comment).containsExactly("c3", "c4");
+        var older = documentService.getDocumentWithHistory(id, 2, newest.historyNextCursor());
+        assertThat(older.history()).extracting(HistoryResponse::comment).containsExactly("c1", "c2");
+        var oldest = documentService.getDocumentWithHistory(id, 2, older.historyNextCursor());
+        assertThat(oldest.history()).extracting(HistoryResponse::comment).containsExactly("c0");
+        assertThat(oldest.historyNextCursor()).isNull();
+
+        var withoutHistory = documentService.getDocumentWithHistory(empty, 2, null);
+        assertThat(withoutHistory.document().id()).isEqualTo(empty);
+        assertThat(withoutHistory.history()).isEmpty();
+        assertThatThrownBy(() -> documentService.getDocumentWithHistory(99999L))
+            .isInstanceOf(com.itq.exception.DocumentNotFoundException.class);
+        assertThatThrownBy(() -> documentService.getDocumentWithHistory(id, 0, null))
+            .isInstanceOf(com.itq.exception.ValidationException.class);
+
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(other), null));
+        var bulk = documentService.getDocumentsWithHistoryByIds(java.util.List.of(other, id, 99999L, empty));
+        assertThat(bulk).extracting(d -> d.document().id()).containsExactly(other, id, empty);
+        assertThat(bulk).extracting(d -> d.history().size()).containsExactly(1, 5, 0);
+        assertThat(bulk.get(0).history().get(0).initiator()).isEqualTo("u1");
+    }
+
+    @Test
+    void lookupDocuments_keepsInputOrderAndReportsMissingIdsAcrossChunks() {
+        var created = documentService.createDocuments(new DocumentBatchCreateRequest(
+            java.util.stream.IntStream.range(0, 1500)
+                .mapToObj(i -> new DocumentCreateRequest("user", "A", "T" + i))
+                .toList()));
+        var requested = new java.util.ArrayList<Long>(created.reversed());
+        requested.add(1, 99999999L);
+        requested.add(created.get(0));
+
+        var result = documentService.lookupDocuments(requested);
+
+        assertThat(result.documents()).extracting(DocumentResponse::id).containsExactlyElementsOf(created.reversed());
+        assertThat(result.missingIds()).containsExactly(99999999L);
+        assertThat(documentService.getDocumentsByIds(java.util.List.of(created.get(5), -1L, created.get(2))))
+            .extracting(DocumentResponse::title).containsExactly("T5", "T2");
+        assertThatThrownBy(() -> documentService.lookupDocuments(
+            java.util.stream.LongStream.range(0, DocumentService.MAX_LOOKUP_IDS + 1).boxed().toList()))
+            .isInstanceOf(com.itq.exception.ValidationException.class);
+    }
+
+    @Test
+    void claimDraftBatch_returnsDisjointBatches() {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T2"));
+        Long id3 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T3"));
+
+        var first = documentService.claimDraftBatch(2);
+        var second = documentService.claimDraftBatch(2);
+
+        assertThat(first).containsExactly(id1, id2);
+        assertThat(second).containsExactly(id3);
+        assertThat(documentService.claimDraftBatch(2)).isEmpty();
+
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id1), null));
+        assertThat(documentService.claimSubmittedBatch(2)).containsExactly(id1);
+    }
+
+    @Test
+    void statusCounters_followTransitionsAndReconcile() {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T2"));
+        documentService.createDocument(new DocumentCreateRequest("user", "A", "T3"));
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id1, id2), null));
+        documentService.approve(new BatchOpRequest("u1", java.util.List.of(id1, 99999L), null));
+
+        assertThat(statusCounterService.counts()).containsExactlyInAnyOrderEntriesOf(java.util.Map.of(
+            DocumentStatus.DRAFT, 1L, DocumentStatus.SUBMITTED, 1L, DocumentStatus.APPROVED, 1L));
+
+        documentRepository.deleteById(id2);
+        statusCounterService.reconcile();
+        assertThat(statusCounterService.count(DocumentStatus.SUBMITTED)).isZero();
+    }
+
+    @Test
+    void documentCache_servesRepeatedReadsAndIsEvictedOnStatusChange() {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T2"));
+        long hits = documentCache.stats().hitCount();
+
+        assertThat(documentService.getDocument(id1).status()).isEqualTo(DocumentStatus.DRAFT);
+        assertThat(documentService.getDocumentsByIds(java.util.List.of(id2, id1, id2, 99999L)))
+            .extracting(DocumentResponse::id).containsExactly(id2, id1);
+        assertThat(documentService.getDocument(id2).status()).isEqualTo(DocumentStatus.DRAFT);
+        assertThat(documentCache.stats().hitCount() - hits).isEqualTo(2);
+
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id1, id2), null));
+        assertThat(documentService.getDocument(id1).status()).isEqualTo(DocumentStatus.SUBMITTED);
+
+        documentService.approve(new BatchOpRequest("u1", java.util.List.of(id2), null));
+        assertThat(documentService.getDocumentsByIds(java.util.List.of(id1, id2)))
+            .extracting(DocumentResponse::status)
+            .containsExactly(DocumentStatus.SUBMITTED, DocumentStatus.APPROVED);
+    }
+
+    @Test
+    void search_appliesOnlySuppliedFiltersAndIndexedSort() {
+        Long a1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long a2 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T2"));
+        Long b1 = documentService.createDocument(new DocumentCreateRequest("user", "B", "T3"));
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(a1, b1), null));
+        var byId = org.springframework.data.domain.PageRequest.of(0, 10,
+            org.springframework.data.domain.Sort.by("id").ascending());
+
+        assertThat(documentService.search(new SearchCriteria("submitted", " A ", null, null), byId).getContent())
+            .extracting(DocumentResponse::id).containsExactly(a1);
+        assertThat(documentService.search(new SearchCriteria(null, "A", null, null), byId).getContent())
+            .extracting(DocumentResponse::id).containsExactly(a1, a2);
+        assertThat(documentService.search(new SearchCriteria(null, null, null, null), byId).getTotalElements())
+            .isEqualTo(3);
+
+        var byTitle = org.springframework.data.domain.PageRequest.of(0, 10,
+            org.springframework.data.domain.Sort.by("title"));
+        assertThatThrownBy(() -> documentService.search(new SearchCriteria(null, null, null, null), byTitle))
+            .isInstanceOf(com.itq.exception.ValidationException.class);
+    }
+
+    @Test
+    void scroll_walksAllPagesWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 7; i++) {
+            documentService.createDocument(new DocumentCreateRequest("user", "A", "T" + i));
+        }
+        documentService.createDocument(new DocumentCreateRequest("user", "B", "other"));
+        var criteria = new SearchCriteria(null, "A", null, null);
+        var all = documentRepository.findAll().stream().filter(d -> d.getAuthor().equals("A")).toList();
+
+        for (String sortBy : java.util.List.of("createdAt", "id")) {
+            for (String dir : java.util.List.of("asc", "desc")) {
+                java.util.Comparator<com.itq.entity.Document> order = "id".equals(sortBy)
+                    ? java.util.Comparator.comparing(com.itq.entity.Document::getId)
+                    : java.util.Comparator.comparing(com.itq.entity.Document::getCreatedAt)
+                        .thenComparing(com.itq.entity.Document::getId);
+                if (dir.equals("desc")) {
+                    order = order.reversed();
+                }
+                var expected = all.stream().sorted(order).map(com.itq.entity.Document::getId).toList();
+
+                var seen = new java.util.ArrayList<Long>();
+                String cursor = null;
+                int pages = 0;
+                do {
+                    var page = documentService.scroll(criteria, sortBy, dir, 3, cursor);
+                    page.content().forEach(d -> seen.add(d.id()));
+                    cursor = page.nextCursor();
+                    pages++;
+                } while (cursor != null);
+
+                assertThat(seen).as(sortBy + " " + dir).containsExactlyElementsOf(expected);
+                assertThat(pages).isEqualTo(3);
+            }
+        }
+
+        String idCursor = documentService.scroll(criteria, "id", "asc", 3, null).nextCursor();
+        assertThatThrownBy(() -> documentService.scroll(criteria, "id", "desc", 3, idCursor))
+            .isInstanceOf(com.itq.exception.ValidationException.class);
+        assertThatThrownBy(() -> documentService.scroll(criteria, "title", "asc", 3, null))
+            .isInstanceOf(com.itq.exception.ValidationException.class);
+    }
+
     @Test
     void approve_batch_partialResults() {
         Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
@@ -119,4 +377,165 @@ class DocumentServiceIntegrationTest {
         assertThat(result.results().stream().filter(r -> r.result() == StatusChangeResultType.NOT_FOUND).count()).isEqualTo(1);
     }
 
+    @Test
+    void concurrentApproval_sharedPoolApprovesOnceAndIsIdleAfterwards() {
+        Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "T"));
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id), null));
+
+        var result = concurrentApprovalService.runConcurrentApproval(id, 4, 5, "u1");
+        var again = concurrentApprovalService.runConcurrentApproval(id, 4, 5, "u1");
+
+        assertThat(result.successCount()).isEqualTo(1);
+        assertThat(result.conflictCount() + result.errorCount()).isEqualTo(19);
+        assertThat(result.finalStatus()).isEqualTo("APPROVED");
+        assertThat(again.successCount()).isZero();
+        var stats = concurrentApprovalService.executorStats();
+        // оба вызова выполнены одним общим пулом и дождались всех своих попыток;
+        // поток считает задачу завершённой чуть позже, чем её Future, поэтому складываем с активными
+        assertThat(stats.maxPoolSize()).isEqualTo(16);
+        assertThat(stats.completedTaskCount() + stats.activeCount()).isGreaterThanOrEqualTo(40);
+        assertThat(stats.queueSize()).isZero();
+    }
+
+    @Test
+    void concurrentApproval_optimisticModeApprovesOnceWithoutLocking() {
+        Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "T"));
+        Long draft = documentService.createDocument(new DocumentCreateRequest("user", "A", "T"));
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id), null));
+        approveProperties.setLockMode(ApproveProperties.LockMode.OPTIMISTIC);
+        try {
+            var result = concurrentApprovalService.runConcurrentApproval(id, 8, 5, "u1");
+
+            assertThat(result.successCount()).isEqualTo(1);
+            assertThat(result.conflictCount()).isEqualTo(39);
+            assertThat(result.errorCount()).isZero();
+            assertThat(documentService.getDocumentWithHistory(id).history()).hasSize(2);
+            assertThat(approvalRegistryRepository.count()).isEqualTo(1);
+            assertThatThrownBy(() -> documentService.approveOne(draft, "u1", null))
+                .hasMessageContaining("Current: DRAFT");
+            assertThatThrownBy(() -> documentService.approveOne(-1L, "u1", null))
+                .isInstanceOf(DocumentNotFoundException.class);
+        } finally {
+            approveProperties.setLockMode(ApproveProperties.LockMode.PESSIMISTIC);
+        }
+    }
+
+    @Test
+    void approve_recordsLowCardinalityMetrics() {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "B", "T2"));
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id1, id2), null));
+        double conflictsBefore = count("document.results", "result", "conflict");
+        long batchesBefore = timerCount("document.batch.duration", "operation", "approve");
+        long registryWritesBefore = timerCount("document.registry.write", "outcome", "success");
+
+        documentService.approve(new BatchOpRequest("u1", java.util.List.of(id1, id1), null));
+        documentService.approveOne(id2, "u1", null);
+        assertThatThrownBy(() -> documentService.approveOne(id2, "u1", null));
+
+        assertThat(timerCount("document.batch.duration", "operation", "approve") - batchesBefore).isEqualTo(1);
+        assertThat(count("document.results", "result", "success")).isGreaterThanOrEqualTo(2);
+        assertThat(count("document.results", "result", "conflict") - conflictsBefore).isEqualTo(1);
+        assertThat(timerCount("document.registry.write", "outcome", "success") - registryWritesBefore).isEqualTo(2);
+        assertThat(timerCount("document.item.duration", "outcome", "conflict")).isPositive();
+        assertThat(meterRegistry.get("document.lock.wait").tags("scope", "batch").timer().count()).isPositive();
+        assertThat(meterRegistry.get("document.status.count").tag("status", "APPROVED").gauge().value()).isEqualTo(2);
+        // в тегах нет id и инициаторов
+        assertThat(meterRegistry.getMeters()).allSatisfy(m -> assertThat(m.getId().getTags())
+            .noneMatch(t -> t.getValue().equals("u1") || t.getValue().equals(String.valueOf(id1))));
+    }
+
+    @Test
+    void changeFeed_deliversCommittedTransitionsInOrderAndExpiresPrunedCursor() throws Exception {
+        changeFeedService.publishPending();
+        changeFeedService.prune(java.time.LocalDateTime.now().plusMinutes(1));
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T2"));
+        documentService.submit(new BatchOpRequest("u1", java.util.List.of(id1, id2), null));
+        documentService.approve(new BatchOpRequest("u2", java.util.List.of(id1), null));
+        changeFeedService.publishPending();
+
+        var feed = changeFeedService.read(0, 100);
+        assertThat(feed.changes()).extracting(DocumentChangeResponse::documentId, DocumentChangeResponse::toStatus)
+            .containsExactly(
+                org.assertj.core.groups.Tuple.tuple(id1, DocumentStatus.SUBMITTED),
+                org.assertj.core.groups.Tuple.tuple(id2, DocumentStatus.SUBMITTED),
+                org.assertj.core.groups.Tuple.tuple(id1, DocumentStatus.APPROVED));
+        assertThat(feed.changes().get(2).position() - feed.changes().get(0).position()).isEqualTo(2);
+        assertThat(feed.next()).isEqualTo(feed.changes().get(2).position());
+
+        // long-poll: ответ приходит с первой записью после курсора
+        var pending = changeFeedService.poll(feed.next(), 100, 10_000);
+        assertThat(pending.hasResult()).isFalse();
+        var delivered = new java.util.concurrent.CompletableFuture<Object>();
+        pending.setResultHandler(delivered::complete);
+        documentService.approve(new BatchOpRequest("u2", java.util.List.of(id2), null));
+        changeFeedService.publishPending();
+        var next = (ChangeFeedResponse) delivered.get(5, java.util.concurrent.TimeUnit.SECONDS);
+        assertThat(next.changes()).singleElement()
+            .satisfies(c -> {
+                assertThat(c.documentId()).isEqualTo(id2);
+                assertThat(c.fromStatus()).isEqualTo(DocumentStatus.SUBMITTED);
+                assertThat(c.toStatus()).isEqualTo(DocumentStatus.APPROVED);
+                assertThat(c.initiator()).isEqualTo("u2");
+            });
+
+        // конфликт не пишет в ленту
+        documentService.approve(new BatchOpRequest("u2", java.util.List.of(id2), null));
+        changeFeedService.publishPending();
+        assertThat(changeFeedService.read(next.next(), 100).changes()).isEmpty();
+
+        assertThat(changeFeedService.prune(java.time.LocalDateTime.now().plusMinutes(1))).isEqualTo(4);
+        assertThatThrownBy(() -> changeFeedService.read(feed.changes().get(0).position(), 100))
+            .isInstanceOf(ChangeCursorExpiredException.class);
+    }
+
+    @Test
+    void historyArchive_movesColdRowsAndReadsMergeArchiveWithHotHistory() {
+        Long id = documentService.createDocument(new DocumentCreateRequest("user", "A", "archived history"));
+        var doc = documentRepository.findById(id).orElseThrow();
+        for (int i = 0; i < 4; i++) {
+            var entry = new com.itq.entity.History();
+            entry.setDocument(doc);
+            entry.setAction(com.itq.entity.enums.DocumentAction.SUBMIT);
+            entry.setInitiator("u");
+            entry.setComment("c" + i);
+            historyRepository.save(entry);
+        }
+        // c0, c1 — записи прошлого года; на H2 секций нет, поэтому переносятся строки
+        var lastYear = java.time.LocalDateTime.now().minusYears(1);
+        jdbcTemplate.update("update history set created_at = ? where comment = 'c0'", lastYear.minusDays(1));
+        jdbcTemplate.update("update history set created_at = ? where comment = 'c1'", lastYear);
+        assertThat(historyArchiveService.archive(java.time.YearMonth.now())).isEqualTo(2);
+        assertThat(historyArchiveService.archive(java.time.YearMonth.now())).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from history where document_id = ?", Long.class, id)).isEqualTo(2);
+
+        var full = documentService.getDocumentWithHistory(id);
+        assertThat(full.history()).extracting(HistoryResponse::comment).containsExactly("c0", "c1", "c2", "c3");
+
+        // курсор на границе: последняя горячая запись, затем архивная
+        var hotPage = documentService.getDocumentWithHistory(id, 2, null);
+        assertThat(hotPage.history()).extracting(HistoryResponse::comment).containsExactly("c2", "c3");
+        var archivedPage = documentService.getDocumentWithHistory(id, 2, hotPage.historyNextCursor());
+        assertThat(archivedPage.history()).extracting(HistoryResponse::comment).containsExactly("c0", "c1");
+        assertThat(archivedPage.historyNextCursor()).isNull();
+
+        var mixedPage = documentService.getDocumentWithHistory(id, 3, null);
+        assertThat(mixedPage.history()).extracting(HistoryResponse::comment).containsExactly("c1", "c2", "c3");
+        var lastPage = documentService.getDocumentWithHistory(id, 3, mixedPage.historyNextCursor());
+        assertThat(lastPage.history()).extracting(HistoryResponse::comment).containsExactly("c0");
+        assertThat(lastPage.historyNextCursor()).isNull();
+
+        var bulk = documentService.getDocumentsWithHistoryByIds(java.util.List.of(id));
+        assertThat(bulk.get(0).history()).extracting(HistoryResponse::comment).containsExactly("c0", "c1", "c2", "c3");
+    }
+
+    private double count(String name, String key, String value) {
+        var counters = meterRegistry.find(name).tags(key, value).counters();
+        return counters.stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private long timerCount(String name, String key, String value) {
+        return meterRegistry.find(name).tags(key, value).timers().stream().mapToLong(t -> t.count()).sum();
+    }
 }
@@ -0,0 +1,18 @@
+package com.itq.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Те же сценарии отката, что и {@link ApproveRegistryRollbackTest}, в режиме
+ * {@code document.approve.transaction-mode=PER_CHUNK} и с пулом из одного соединения:
+ * вызов, которому понадобилось бы второе соединение, не дождался бы его и упал по connection-timeout.
+ */
+@SpringBootTest(properties = {
+    "document.approve.transaction-mode=PER_CHUNK",
+    "spring.datasource.hikari.maximum-pool-size=1",
+    "spring.datasource.hikari.connection-timeout=5000"
+})
+@ActiveProfiles("test")
+class PerChunkApproveRegistryRollbackTest extends ApproveRegistryRollbackTest {
+}
@@ -0,0 +1,143 @@
+package com.itq.service;
+
+import com.itq.dto.BatchOpRequest;
+import com.itq.dto.DocumentCreateRequest;
+import com.itq.entity.enums.DocumentStatus;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.itq.repository.ApprovalRegistryRepository;
+import com.itq.repository.DocumentRepository;
+import com.itq.repository.DocumentStatusCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Сверка счётчиков параллельно со сменой статуса: пока submit уже перевёл документы, но ещё не обновил счётчик,
+ * и пока approve держит блокировку полосы SUBMITTED и ещё не взял полосу APPROVED.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StatusCounterReconcileTest {
+
+    @Autowired
+    DocumentService documentService;
+
+    @Autowired
+    DocumentRepository documentRepository;
+
+    @Autowired
+    ApprovalRegistryRepository approvalRegistryRepository;
+
+    @Autowired
+    DocumentStatusCounterRepository counterRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    StatusCounterService statusCounterService;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository.deleteAll();
+        approvalRegistryRepository.deleteAll();
+        statusCounterService.reconcile();
+    }
+
+    @Test
+    void reconcile_duringConcurrentSubmitRepairsDriftWithoutLosingTheTransition() throws Exception {
+        Long id1 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T1"));
+        Long id2 = documentService.createDocument(new DocumentCreateRequest("user", "A", "T2"));
+        documentService.createDocument(new DocumentCreateRequest("user", "A", "T3"));
+        // расхождение, которое сверка должна исправить
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> counterRepository.add(DocumentStatus.DRAFT, 0, 5));
+
+        CountDownLatch inTransition = new CountDownLatch(1);
+        CountDownLatch reconciled = new CountDownLatch(1);
+        StatusCounterService target = AopTestUtils.getUltimateTargetObject(statusCounterService);
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == DocumentStatus.DRAFT) {
+                inTransition.countDown();
+                assertThat(reconciled.await(10, TimeUnit.SECONDS)).isTrue();
+            }
+            return invocation.callRealMethod();
+        }).when(target).transition(any(), any(), anyLong());
+
+        var submit = CompletableFuture.supplyAsync(
+            () -> documentService.submit(new BatchOpRequest("u1", List.of(id1, id2), null)));
+        assertThat(inTransition.await(10, TimeUnit.SECONDS)).isTrue();
+        statusCounterService.reconcile();
+        reconciled.countDown();
+
+        assertThat(submit.get(10, TimeUnit.SECONDS).results())
+            .allMatch(r -> r.result() == StatusChangeResultType.SUCCESS);
+        assertThat(statusCounterService.counts()).containsExactlyInAnyOrderEntriesOf(Map.of(
+            DocumentStatus.DRAFT, 1L, DocumentStatus.SUBMITTED, 2L, DocumentStatus.APPROVED, 0L));
+    }
+
+    @Test
+    void reconcile_whileApproveHoldsSubmittedStripeLocksInTheSameOrder() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch submittedLocked = new CountDownLatch(1);
+        CountDownLatch reconcileStarted = new CountDownLatch(1);
+        CountDownLatch reconciled = new CountDownLatch(1);
+        // порядок transition(SUBMITTED, APPROVED, n): полоса SUBMITTED, затем APPROVED
+        var approve = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            counterRepository.add(DocumentStatus.SUBMITTED, 0, -1);
+            submittedLocked.countDown();
+            awaitQuietly(reconcileStarted);
+            // сверка к этому моменту ждёт полосу SUBMITTED; если бы она уже держала APPROVED (блокировки по строковой
+            // колонке status, как сортирует PostgreSQL), здесь была бы взаимоблокировка
+            sleepQuietly(500);
+            counterRepository.add(DocumentStatus.APPROVED, 0, 1);
+            assertThat(reconciled.getCount()).isEqualTo(1);
+        }));
+        assertThat(submittedLocked.await(10, TimeUnit.SECONDS)).isTrue();
+        var reconcile = CompletableFuture.runAsync(() -> {
+            reconcileStarted.countDown();
+            statusCounterService.reconcile();
+            reconciled.countDown();
+        });
+
+        approve.get(20, TimeUnit.SECONDS);
+        reconcile.get(20, TimeUnit.SECONDS);
+        // сверка прошла после коммита approve и убрала его дельту: документов, которые она описывала бы, нет
+        assertThat(statusCounterService.counts()).containsExactlyInAnyOrderEntriesOf(Map.of(
+            DocumentStatus.DRAFT, 0L, DocumentStatus.SUBMITTED, 0L, DocumentStatus.APPROVED, 0L));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
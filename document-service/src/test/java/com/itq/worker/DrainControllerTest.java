@@ -0,0 +1,82 @@
+package com.itq.worker;
+
+import com.itq.config.WorkerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DrainControllerTest {
+
+    WorkerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WorkerProperties();
+        properties.setBatchSize(50);
+        properties.setMinBatchSize(10);
+        properties.setMaxBatchSize(1000);
+        properties.setTargetBatchLatencyMs(1000);
+        properties.setIdleBackoffMaxMs(8000);
+    }
+
+    @Test
+    void batchSize_growsTowardsTargetLatencyAndStopsAtMax() {
+        var drain = new DrainController(properties, 1000);
+
+        drain.onBatch(50, 100); // 2 мс на документ -> идеал 500
+        assertThat(drain.batchSize()).isEqualTo(275);
+
+        for (int i = 0; i < 10; i++) {
+            drain.onBatch(drain.batchSize(), drain.batchSize() / 10); // 0.1 мс на документ
+        }
+        assertThat(drain.batchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void batchSize_neverExceedsServiceLimitWhateverTheConfig() {
+        properties.setBatchSize(5000);
+        properties.setMinBatchSize(2000);
+        properties.setMaxBatchSize(10_000);
+        var drain = new DrainController(properties, 1000);
+        assertThat(drain.batchSize()).isEqualTo(1000);
+
+        drain.onBatch(1000, 1); // идеал далеко за пределом сервиса
+        assertThat(drain.batchSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void batchSize_shrinksWhenBatchesAreSlowButNotBelowMin() {
+        var drain = new DrainController(properties, 1000);
+
+        drain.onBatch(50, 5000); // 100 мс на документ -> идеал 10
+        assertThat(drain.batchSize()).isEqualTo(30);
+
+        for (int i = 0; i < 10; i++) {
+            drain.onBatch(drain.batchSize(), drain.batchSize() * 1000L);
+        }
+        assertThat(drain.batchSize()).isEqualTo(10);
+    }
+
+    @Test
+    void idle_backsOffExponentiallyUpToMaxAndResetsOnWork() {
+        var drain = new DrainController(properties, 1000);
+        assertThat(drain.isDue(0)).isTrue();
+
+        drain.onIdle(0);
+        assertThat(drain.isDue(999)).isFalse();
+        assertThat(drain.isDue(1000)).isTrue();
+
+        drain.onIdle(1000); // +2000
+        drain.onIdle(3000); // +4000
+        drain.onIdle(7000); // +8000 (потолок)
+        drain.onIdle(15000); // +8000
+        assertThat(drain.isDue(22999)).isFalse();
+        assertThat(drain.isDue(23000)).isTrue();
+
+        drain.onBatch(10, 10);
+        assertThat(drain.isDue(23000)).isTrue();
+        drain.onIdle(23000);
+        assertThat(drain.isDue(24000)).isTrue();
+    }
+}
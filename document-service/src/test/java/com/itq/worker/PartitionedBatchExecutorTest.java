@@ -0,0 +1,73 @@
+package com.itq.worker;
+
+import com.itq.config.WorkerProperties;
+import com.itq.dto.BatchResultDto;
+import com.itq.dto.ItemResult;
+import com.itq.entity.enums.StatusChangeResultType;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionedBatchExecutorTest {
+
+    WorkerProperties properties;
+    HikariDataSource dataSource;
+    PartitionedBatchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WorkerProperties();
+        properties.setParallelism(4);
+        properties.setMaxPoolShare(0.5);
+        dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(10);
+        executor = new PartitionedBatchExecutor(properties, dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        dataSource.close();
+    }
+
+    @Test
+    void effectiveParallelism_isCappedByPoolShare() {
+        assertThat(executor.effectiveParallelism(1)).isEqualTo(4);
+        assertThat(executor.effectiveParallelism(2)).isEqualTo(2);
+
+        dataSource.setMaximumPoolSize(2);
+        assertThat(executor.effectiveParallelism(2)).isEqualTo(1);
+    }
+
+    @Test
+    void execute_runsPartitionsOnVirtualThreadsAndKeepsInputOrder() {
+        Set<List<Long>> partitions = ConcurrentHashMap.newKeySet();
+        List<Long> ids = List.of(7L, 2L, 9L, 4L, 1L, 8L, 3L);
+
+        BatchResultDto result = executor.execute(ids, 3, part -> {
+            assertThat(Thread.currentThread().isVirtual()).isTrue();
+            partitions.add(part);
+            return new BatchResultDto(part.stream()
+                .map(id -> new ItemResult(id, StatusChangeResultType.SUCCESS, "ok"))
+                .toList());
+        });
+
+        assertThat(result.results()).extracting(ItemResult::id).containsExactlyElementsOf(ids);
+        assertThat(partitions).containsExactlyInAnyOrder(List.of(9L, 3L), List.of(7L, 4L, 1L), List.of(2L, 8L));
+    }
+
+    @Test
+    void execute_propagatesPartitionFailure() {
+        assertThatThrownBy(() -> executor.execute(List.of(1L, 2L), 2, part -> {
+            throw new IllegalStateException("boom " + part);
+        })).isInstanceOf(IllegalStateException.class).hasMessageStartingWith("boom");
+    }
+}